@@ -0,0 +1,65 @@
+package cse360Project.models;
+
+import java.util.List;
+
+/*******
+ * <p>
+ * ArticlePage.
+ * </p>
+ * 
+ * <p>
+ * Description: One page of articles in UUID order, with the cursor to request
+ * the next page from.
+ * </p>
+ * 
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ * 
+ */
+public class ArticlePage {
+    private final List<HelpArticle> articles;
+    private final String nextCursor;
+
+    /**
+     * Creates a new ArticlePage.
+     * 
+     * @param articles   the articles on the page.
+     * @param nextCursor the cursor of the next page, or null if this is the
+     *                   last page.
+     */
+    public ArticlePage(List<HelpArticle> articles, String nextCursor) {
+        this.articles = articles;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the articles on the page.
+     * 
+     * @return the articles, in UUID order.
+     */
+    public List<HelpArticle> getArticles() {
+        return articles;
+    }
+
+    /**
+     * Gets the cursor to pass to get the next page.
+     * 
+     * @return the UUID of the last article on this page, or null if this is
+     *         the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether there are more articles after this page.
+     * 
+     * @return true if there is a next page.
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
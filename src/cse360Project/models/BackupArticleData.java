@@ -11,7 +11,8 @@ import java.util.Map;
  * 
  * <p>
  * Description: Represents the article backup data structure. Used as a DTO in
- * backups.
+ * backups. Encrypted article values are byte arrays; backups taken before
+ * phase four hold base64 strings instead.
  * </p>
  * 
  * <p>
@@ -24,7 +25,7 @@ import java.util.Map;
 public class BackupArticleData implements Serializable {
     private static final long serialVersionUID = 1L;
 
-    private List<Map<String, String>> encryptedArticles;
+    private List<Map<String, Object>> encryptedArticles;
     private List<ArticleGroup> groups;
     private List<ArticleGroupUser> groupUsers;
     private List<ArticleGroupArticle> groupArticles;
@@ -37,7 +38,7 @@ public class BackupArticleData implements Serializable {
      * @param groupUsers        the group users.
      * @param groupArticles     the group articles.
      */
-    public BackupArticleData(List<Map<String, String>> encryptedArticles,
+    public BackupArticleData(List<Map<String, Object>> encryptedArticles,
             List<ArticleGroup> groups,
             List<ArticleGroupUser> groupUsers,
             List<ArticleGroupArticle> groupArticles) {
@@ -52,7 +53,7 @@ public class BackupArticleData implements Serializable {
      * 
      * @return the encrypted articles.
      */
-    public List<Map<String, String>> getEncryptedArticles() {
+    public List<Map<String, Object>> getEncryptedArticles() {
         return encryptedArticles;
     }
 
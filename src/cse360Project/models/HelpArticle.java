@@ -212,6 +212,16 @@ public class HelpArticle implements Serializable {
         this.level = level;
     }
 
+    /**
+     * Checks whether the content fields (keywords, body and references) are
+     * loaded. Summaries used for article lists leave them null.
+     * 
+     * @return true if the body is loaded.
+     */
+    public boolean hasContent() {
+        return body != null;
+    }
+
     /**
      * Converts authors list into a comma-separated string.
      * 
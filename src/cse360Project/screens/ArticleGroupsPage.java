@@ -412,7 +412,7 @@ public class ArticleGroupsPage extends Application {
 
         try {
             // get all articles, show in format "title (uuid)"
-            List<HelpArticle> allArticles = helpArticleService.getAllArticles();
+            List<HelpArticle> allArticles = helpArticleService.getArticleSummaries();
             Set<String> existingTitles = new HashSet<>(articlesListView.getItems());
             availableArticles.getItems().addAll(
                     allArticles.stream()
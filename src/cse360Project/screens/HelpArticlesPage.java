@@ -5,6 +5,7 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.*;
 import javafx.event.ActionEvent;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -14,22 +15,28 @@ import javafx.scene.layout.*;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import cse360Project.models.ArticleGroup;
+import cse360Project.models.ArticlePage;
 import cse360Project.models.HelpArticle;
 import cse360Project.models.Role;
 import cse360Project.models.Topic;
 import cse360Project.screens.HelpArticlesPage.HelpArticleRow;
 import cse360Project.services.*;
+import cse360Project.services.search.FacetCounts;
+import cse360Project.services.search.SearchRefinement;
 import javafx.application.Platform;
 
 import java.io.File;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 /*******
@@ -51,23 +58,41 @@ import java.util.stream.Collectors;
  */
 public class HelpArticlesPage extends Application {
 
+    // Only the most relevant search results are listed
+    private static final int SEARCH_RESULT_LIMIT = 50;
+    // Articles are listed a page at a time, the next page loads when scrolled to the end
+    private static final int PAGE_SIZE = 100;
+    // Searching starts once typing pauses this long
+    private static final long SEARCH_DEBOUNCE_MILLIS = 250;
+
     private TableView<HelpArticleRow> tableView;
     private HelpArticleService helpArticleService;
     private UserService userService = UserService.getInstance();
 
     private List<HelpArticle> articles;
+    private String nextPageCursor;
+    // Articles matching the group and level filters, searched again while only the search text changes
+    private Map<String, HelpArticle> searchableArticles;
+    // Matches of this page's last query, refined as the user types
+    private final SearchRefinement searchRefinement = new SearchRefinement();
+    private final DebouncedExecutor searchExecutor = new DebouncedExecutor("article-search",
+            SEARCH_DEBOUNCE_MILLIS, Platform::runLater);
     private Set<String> selectedGroups = new HashSet<>();
-    private List<ArticleGroup> allGroups = new ArrayList<>();
+    // Groups the user can see by ID, in ID order
+    private Map<Integer, ArticleGroup> allGroups = new LinkedHashMap<>();
 
     private Button backupButton;
     private VBox rootNode;
     private Button groupFilterButton;
     private Button levelFilterButton;
+    private Button keywordFilterButton;
 
     private boolean isUpdatingGroups = false;
 
     private Set<Topic> selectedLevels = new HashSet<>();
 
+    private Set<String> selectedKeywords = new HashSet<>();
+
     private TextField searchField;
 
     private List<String> searchHistory = new ArrayList<>();
@@ -89,13 +114,14 @@ public class HelpArticlesPage extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
-        helpArticleService = new HelpArticleService();
+        helpArticleService = HelpArticleService.getInstance();
 
         tableView = new TableView<>();
         setupTableView();
 
         Button logoutButton = new Button("Logout");
         logoutButton.setOnAction(e -> {
+            searchExecutor.shutdown();
             userService.setCurrentUser(null);
             new LoginPage().start(new Stage());
             primaryStage.close();
@@ -133,16 +159,20 @@ public class HelpArticlesPage extends Application {
         levelFilterButton = new Button("Filter by Level");
         levelFilterButton.setOnAction(e -> showLevelFilterDialog());
 
-        HBox filterRow = new HBox(10, new Label("Filter:"), groupFilterButton, levelFilterButton);
+        keywordFilterButton = new Button("Filter by Keyword");
+        keywordFilterButton.setOnAction(e -> showKeywordFilterDialog());
+
+        HBox filterRow = new HBox(10, new Label("Filter:"), groupFilterButton, levelFilterButton,
+                keywordFilterButton);
 
         searchField = new TextField();
-        searchField.setPromptText("Search by title, author, abstract or ID...");
+        searchField.setPromptText("Search by title, author, abstract, keyword, body or ID...");
         searchField.setPrefWidth(300);
         searchField.textProperty().addListener((observable, oldValue, newValue) -> {
             if (!newValue.trim().isEmpty()) {
                 searchHistory.add(newValue.trim());
             }
-            loadArticles();
+            showArticles();
         });
 
         HBox searchRow = new HBox(10, new Label("Search:"), searchField);
@@ -156,6 +186,7 @@ public class HelpArticlesPage extends Application {
         primaryStage.show();
 
         loadArticles();
+        setupPagingOnScroll();
 
         EventService.getInstance().addHelpArticlesPageListener(this::loadArticles);
     }
@@ -230,11 +261,8 @@ public class HelpArticlesPage extends Application {
                     boolean isGroupAdmin = false;
                     try {
                         isGroupAdmin = articleGroupIds.stream()
-                                .anyMatch(groupId -> allGroups.stream()
-                                        .filter(g -> g.getId() == groupId)
-                                        .findFirst()
-                                        .map(ArticleGroup::isAdmin)
-                                        .orElse(false));
+                                .anyMatch(groupId -> allGroups.containsKey(groupId)
+                                        && allGroups.get(groupId).isAdmin());
                     } catch (Exception e) {
                         e.printStackTrace();
                     }
@@ -259,81 +287,212 @@ public class HelpArticlesPage extends Application {
 
     /**
      * Fetches articles from the database and adds them to the TableView.
+     * Without search text only the first page is loaded, otherwise the search
+     * runs in the background once typing pauses.
      */
     private void loadArticles() {
+        searchableArticles = null;
+        showArticles();
+    }
+
+    /**
+     * Shows the first page of articles, or the search results if there is
+     * search text. Searches reuse the articles loaded for the previous search
+     * unless loadArticles was called since.
+     */
+    private void showArticles() {
+        String searchText = searchField.getText().trim().toLowerCase();
+        if (!searchText.isEmpty()) {
+            searchArticles(searchText);
+            return;
+        }
+
+        searchExecutor.cancel();
         try {
-            // Get articles based on group filter
-            List<HelpArticle> filteredArticles;
-            if (selectedGroups.isEmpty()) {
-                filteredArticles = helpArticleService.getAllArticles();
-            } else {
-                filteredArticles = helpArticleService.getArticlesByGroups(
-                        selectedGroups.stream().map(Integer::parseInt).collect(Collectors.toList()));
-            }
+            articles = new ArrayList<>();
+            nextPageCursor = null;
+            updateTableArticles();
+            loadNextPage();
+            refreshGroupsList();
+        } catch (Exception e) {
+            System.out.println("Error loading articles: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-            // Apply level filter
-            if (!selectedLevels.isEmpty()) {
-                filteredArticles = filteredArticles.stream()
-                        .filter(article -> selectedLevels.contains(article.getLevel()))
-                        .collect(Collectors.toList());
-            }
+    /**
+     * Updates the groups list if not already updating.
+     */
+    private void refreshGroupsList() {
+        if (!isUpdatingGroups) {
+            Platform.runLater(this::updateGroupsList);
+        }
+    }
 
-            // Apply search filter if search text exists
-            String searchText = searchField.getText().trim().toLowerCase();
-            if (!searchText.isEmpty()) {
-                filteredArticles = filteredArticles.stream()
-                        .filter(article -> {
-                            // Check UUID
-                            if (article.getUuid().equals(searchText)) {
-                                return true;
-                            }
-                            // Check title
-                            if (article.getTitle().toLowerCase().contains(searchText)) {
-                                return true;
-                            }
-                            // Check abstract
-                            if (new String(article.getAbstractText()).toLowerCase().contains(searchText)) {
-                                return true;
-                            }
-                            // Check authors
-                            String authors = Arrays.stream(article.getAuthors())
-                                    .map(String::new)
-                                    .collect(Collectors.joining(" "))
-                                    .toLowerCase();
-                            return authors.contains(searchText);
-                        })
-                        .collect(Collectors.toList());
+    /**
+     * Loads the next page of articles matching the group, keyword and level
+     * filters and appends it to the TableView. The filters are applied before
+     * articles are loaded, so one page is one fetch however selective they
+     * are.
+     *
+     * @throws Exception if the articles cannot be loaded.
+     */
+    private void loadNextPage() throws Exception {
+        ArticlePage page = helpArticleService.getArticleSummaryPage(
+                selectedGroups.stream().map(Integer::parseInt).collect(Collectors.toList()),
+                selectedKeywords, selectedLevels, nextPageCursor, PAGE_SIZE);
+        nextPageCursor = page.getNextCursor();
+
+        articles.addAll(page.getArticles());
+        appendTableArticles(page.getArticles());
+    }
+
+    /**
+     * Loads the next page when the table is scrolled to the end. The scroll
+     * bar exists once the table is shown.
+     */
+    private void setupPagingOnScroll() {
+        for (Node node : tableView.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                ScrollBar scrollBar = (ScrollBar) node;
+                scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= scrollBar.getMax() && nextPageCursor != null) {
+                        try {
+                            loadNextPage();
+                        } catch (Exception e) {
+                            System.out.println("Error loading articles: " + e.getMessage());
+                            e.printStackTrace();
+                        }
+                    }
+                });
             }
+        }
+    }
 
-            articles = filteredArticles;
+    /**
+     * Searches in the background and shows the best matches. A newer search
+     * supersedes this one, only the latest results are shown.
+     *
+     * @param searchText the lower case search text.
+     */
+    private void searchArticles(String searchText) {
+        // Read the filters on this thread, they may change while the search runs
+        List<Integer> groups = selectedGroups.stream().map(Integer::parseInt).collect(Collectors.toList());
+        Set<Topic> levels = new HashSet<>(selectedLevels);
+        Set<String> keywords = new HashSet<>(selectedKeywords);
+        Map<String, HelpArticle> searchable = searchableArticles;
+
+        searchExecutor.submit(
+                superseded -> findSearchResults(searchText, groups, levels, keywords, searchable, superseded),
+                results -> {
+                    searchableArticles = results.searchable;
+                    articles = results.ranked;
+                    nextPageCursor = null;
+                    updateTableArticles();
+                    refreshGroupsList();
+                }, e -> {
+                    System.out.println("Error loading articles: " + e.getMessage());
+                    e.printStackTrace();
+                });
+    }
 
-            updateTableArticles();
+    /**
+     * Finds the articles matching the group, level and keyword filters and a
+     * search, best matches first. Runs in the background.
+     *
+     * @param searchText   the lower case search text.
+     * @param groups       the IDs of the groups to search, empty for all.
+     * @param levels       the levels to search, empty for all.
+     * @param keywords     the keywords to search, empty for all.
+     * @param articlesById the articles matching the filters by UUID, or null
+     *                     to load them.
+     * @param superseded   whether a newer search was started.
+     * @return the best matches, empty if superseded.
+     * @throws Exception if the articles cannot be loaded or searched.
+     */
+    private SearchResults findSearchResults(String searchText, List<Integer> groups, Set<Topic> levels,
+            Set<String> keywords, Map<String, HelpArticle> articlesById, BooleanSupplier superseded)
+            throws Exception {
+        if (articlesById == null) {
+            articlesById = loadSearchableArticles(groups, levels, keywords);
+        }
+        if (superseded.getAsBoolean()) {
+            return new SearchResults(articlesById, new ArrayList<>());
+        }
 
-            // Update groups list if not already updating
-            if (!isUpdatingGroups) {
-                Platform.runLater(this::updateGroupsList);
+        // Apply search filter, best matches first
+        List<HelpArticle> rankedArticles = new ArrayList<>();
+        if (articlesById.containsKey(searchText)) {
+            rankedArticles.add(articlesById.get(searchText));
+        }
+        for (String id : helpArticleService.searchArticleIds(searchText, articlesById.keySet(),
+                SEARCH_RESULT_LIMIT, searchRefinement)) {
+            if (!id.equals(searchText)) {
+                rankedArticles.add(articlesById.get(id));
             }
-        } catch (Exception e) {
-            System.out.println("Error loading articles: " + e.getMessage());
-            e.printStackTrace();
         }
+        return new SearchResults(articlesById, rankedArticles);
+    }
+
+    /**
+     * Loads the article summaries matching the group, level and keyword
+     * filters.
+     *
+     * @param groups   the IDs of the groups, empty for all.
+     * @param levels   the levels, empty for all.
+     * @param keywords the keywords, empty for all.
+     * @return the article summaries by UUID.
+     * @throws Exception if the articles cannot be loaded.
+     */
+    private Map<String, HelpArticle> loadSearchableArticles(List<Integer> groups, Set<Topic> levels,
+            Set<String> keywords) throws Exception {
+        // Get article summaries based on group filter, the full article is loaded when opened
+        List<HelpArticle> filteredArticles;
+        if (groups.isEmpty()) {
+            filteredArticles = helpArticleService.getArticleSummaries();
+        } else {
+            filteredArticles = helpArticleService.getArticleSummariesByGroups(groups);
+        }
+
+        Map<String, HelpArticle> articlesById = new HashMap<>();
+        for (HelpArticle article : filteredArticles) {
+            articlesById.put(article.getUuid(), article);
+        }
+
+        // Apply level and keyword filters with the facet index
+        if (!levels.isEmpty() || !keywords.isEmpty()) {
+            articlesById.keySet().retainAll(
+                    helpArticleService.filterArticleIds(articlesById.keySet(), keywords, levels));
+        }
+        return articlesById;
     }
 
     private void updateTableArticles() {
-        ObservableList<HelpArticleRow> data = FXCollections.observableArrayList();
-        int sequence = 1;
-        for (HelpArticle article : articles) {
+        tableView.setItems(FXCollections.observableArrayList());
+        appendTableArticles(articles);
+    }
+
+    /**
+     * Adds rows for articles to the end of the TableView.
+     *
+     * @param newArticles the articles to add.
+     */
+    private void appendTableArticles(List<HelpArticle> newArticles) {
+        List<HelpArticleRow> data = new ArrayList<>();
+        int sequence = tableView.getItems().size() + 1;
+        for (HelpArticle article : newArticles) {
             String title = article.getTitle().trim();
             String abstractText = new String(article.getAbstractText());
             String authors = article.getAuthorsString();
-            String groups = allGroups.stream()
-                    .filter(group -> article.getGroups().contains(group.getId()))
+            String groups = article.getGroups().stream()
+                    .map(allGroups::get)
+                    .filter(Objects::nonNull)
                     .map(ArticleGroup::getName)
                     .collect(Collectors.joining(", "));
             data.add(new HelpArticleRow(article.getUuid(), sequence++, title, abstractText, authors, groups));
         }
 
-        tableView.setItems(data);
+        tableView.getItems().addAll(data);
         if (backupButton != null) {
             backupButton.setDisable(articles.isEmpty());
         }
@@ -407,7 +566,7 @@ public class HelpArticlesPage extends Application {
             noGroupsLabel.setStyle("-fx-text-fill: gray; -fx-font-style: italic;");
             groupsContainer.getChildren().add(noGroupsLabel);
         } else {
-            for (ArticleGroup group : allGroups) {
+            for (ArticleGroup group : allGroups.values()) {
                 CheckBox cb = new CheckBox(group.getName() + (group.isProtected() ? " (Protected)" : ""));
                 cb.setUserData(group.getName());
 
@@ -539,22 +698,20 @@ public class HelpArticlesPage extends Application {
     }
 
     private void editArticle(String articleId) {
-        HelpArticle article = articles.stream()
-                .filter(a -> a.getUuid().equals(articleId))
-                .findFirst()
-                .orElse(null);
+        try {
+            HelpArticle article = helpArticleService.getArticle(articleId);
 
-        if (article != null) {
-            showModifyArticleDialog(article);
+            if (article != null) {
+                showModifyArticleDialog(article);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
         }
     }
 
     private void showArticleDetails(String articleId) {
         try {
-            HelpArticle article = articles.stream()
-                    .filter(a -> a.getUuid().equals(articleId))
-                    .findFirst()
-                    .orElse(null);
+            HelpArticle article = helpArticleService.getArticle(articleId);
 
             if (article != null) {
                 Dialog<Void> dialog = new Dialog<>();
@@ -637,7 +794,7 @@ public class HelpArticlesPage extends Application {
         checkboxContainer.getChildren().add(new Separator());
 
         // Add other group checkboxes
-        for (ArticleGroup group : allGroups) {
+        for (ArticleGroup group : allGroups.values()) {
             CheckBox cb = new CheckBox(group.getName());
             cb.setDisable(true); // initially disabled since "all groups" is selected
             checkboxes.put(group.getName(), cb);
@@ -768,7 +925,7 @@ public class HelpArticlesPage extends Application {
 
         checkboxContainer.getChildren().add(new Separator());
 
-        for (ArticleGroup group : allGroups) {
+        for (ArticleGroup group : allGroups.values()) {
             CheckBox cb = new CheckBox(group.getName());
             cb.setSelected(selectedGroups.contains(group.getName()));
             checkboxes.put(group.getName(), cb);
@@ -842,13 +999,13 @@ public class HelpArticlesPage extends Application {
         try {
             isUpdatingGroups = true;
 
-            allGroups = helpArticleService.getAllGroups();
+            allGroups = helpArticleService.getAllGroupsById();
 
             if (!allGroups.isEmpty()) {
                 groupFilterButton.setDisable(false);
 
                 Set<String> validGroups = new HashSet<>(selectedGroups);
-                validGroups.retainAll(allGroups.stream().map(ArticleGroup::getName).collect(Collectors.toList()));
+                validGroups.retainAll(allGroups.values().stream().map(ArticleGroup::getName).collect(Collectors.toList()));
                 selectedGroups = validGroups;
 
                 if (selectedGroups.isEmpty()) {
@@ -890,9 +1047,11 @@ public class HelpArticlesPage extends Application {
 
         checkboxContainer.getChildren().add(new Separator());
 
-        // add checkboxes for all levels
+        // add checkboxes for all levels, with the number of articles at each level
+        FacetCounts counts = countFacets(selectedKeywords, new HashSet<>());
         for (Topic level : Topic.values()) {
-            CheckBox cb = new CheckBox(level.name());
+            CheckBox cb = new CheckBox(counts == null ? level.name()
+                    : String.format("%s (%d)", level.name(), counts.getLevelCount(level)));
             cb.setSelected(selectedLevels.contains(level));
             checkboxes.put(level, cb);
             checkboxContainer.getChildren().add(cb);
@@ -941,6 +1100,111 @@ public class HelpArticlesPage extends Application {
         });
     }
 
+    /**
+     * Shows the keyword filter dialog, listing the keywords of the articles
+     * in the selected groups and levels with their article counts.
+     */
+    private void showKeywordFilterDialog() {
+        Dialog<Set<String>> dialog = new Dialog<>();
+        dialog.setTitle("Filter by Keyword");
+        dialog.setHeaderText("Select keywords to filter by");
+
+        VBox checkboxContainer = new VBox(5);
+        Map<String, CheckBox> checkboxes = new HashMap<>();
+
+        // add "all keywords" checkbox
+        CheckBox allKeywordsCheckbox = new CheckBox("All Keywords");
+        allKeywordsCheckbox.setSelected(selectedKeywords.isEmpty());
+        checkboxContainer.getChildren().add(allKeywordsCheckbox);
+
+        checkboxContainer.getChildren().add(new Separator());
+
+        // add checkboxes for the keywords, selected keywords stay listed even without articles
+        FacetCounts counts = countFacets(new HashSet<>(), selectedLevels);
+        Map<String, Integer> keywordCounts = new TreeMap<>();
+        selectedKeywords.forEach(keyword -> keywordCounts.put(keyword, 0));
+        if (counts != null) {
+            keywordCounts.putAll(counts.getKeywordCounts());
+        }
+        for (Map.Entry<String, Integer> keyword : keywordCounts.entrySet()) {
+            CheckBox cb = new CheckBox(String.format("%s (%d)", keyword.getKey(), keyword.getValue()));
+            cb.setSelected(selectedKeywords.contains(keyword.getKey()));
+            checkboxes.put(keyword.getKey(), cb);
+            checkboxContainer.getChildren().add(cb);
+        }
+
+        // handle "all keywords" checkbox logic
+        allKeywordsCheckbox.setOnAction(e -> {
+            if (allKeywordsCheckbox.isSelected()) {
+                checkboxes.values().forEach(cb -> cb.setSelected(false));
+            }
+        });
+
+        checkboxes.values().forEach(cb -> {
+            cb.setOnAction(e -> {
+                boolean anySelected = checkboxes.values().stream().anyMatch(CheckBox::isSelected);
+                allKeywordsCheckbox.setSelected(!anySelected);
+            });
+        });
+
+        ScrollPane scrollPane = new ScrollPane(checkboxContainer);
+        scrollPane.setFitToWidth(true);
+        scrollPane.setPrefViewportHeight(300);
+        dialog.getDialogPane().setContent(scrollPane);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        dialog.setResultConverter(dialogButton -> {
+            if (dialogButton == ButtonType.OK) {
+                if (allKeywordsCheckbox.isSelected()) {
+                    return new HashSet<>();
+                }
+                return checkboxes.entrySet().stream()
+                        .filter(entry -> entry.getValue().isSelected())
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toSet());
+            }
+            return null;
+        });
+
+        dialog.showAndWait().ifPresent(result -> {
+            selectedKeywords = result;
+            updateKeywordFilterButtonText();
+            loadArticles();
+        });
+    }
+
+    /**
+     * Counts the articles in the selected groups per keyword and level.
+     *
+     * @param keywords the keywords the articles must have one of, empty for
+     *                 any.
+     * @param levels   the levels the articles must have one of, empty for any.
+     * @return the counts, or null if they cannot be loaded.
+     */
+    private FacetCounts countFacets(Set<String> keywords, Set<Topic> levels) {
+        try {
+            List<String> articleIds = helpArticleService.getVisibleArticleIds(
+                    selectedGroups.stream().map(Integer::parseInt).collect(Collectors.toList()));
+            return helpArticleService.countArticleFacets(
+                    helpArticleService.filterArticleIds(articleIds, keywords, levels));
+        } catch (Exception e) {
+            System.out.println("Error counting articles: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Updates the keyword filter button text.
+     */
+    private void updateKeywordFilterButtonText() {
+        if (selectedKeywords.isEmpty()) {
+            keywordFilterButton.setText("Filter by Keyword (All)");
+        } else {
+            keywordFilterButton.setText(String.format("Filter by Keyword (%d selected)", selectedKeywords.size()));
+        }
+    }
+
     /**
      * Updates the level filter button text.
      */
@@ -1103,4 +1367,37 @@ public class HelpArticlesPage extends Application {
 
         dialog.showAndWait();
     }
+
+    /*******
+     * <p>
+     * SearchResults class.
+     * </p>
+     * 
+     * <p>
+     * Description: The result of a search, with the articles it searched so
+     * a refined search can reuse them.
+     * </p>
+     * 
+     * <p>
+     * Copyright: CSE 360 Team Th02 © 2024
+     * </p>
+     * 
+     * @version 1.00 2026-10-18 Phase four
+     * 
+     */
+    private static class SearchResults {
+        private final Map<String, HelpArticle> searchable;
+        private final List<HelpArticle> ranked;
+
+        /**
+         * Creates search results.
+         * 
+         * @param searchable the searched articles by UUID.
+         * @param ranked     the best matches, most relevant first.
+         */
+        SearchResults(Map<String, HelpArticle> searchable, List<HelpArticle> ranked) {
+            this.searchable = searchable;
+            this.ranked = ranked;
+        }
+    }
 }
@@ -0,0 +1,141 @@
+package cse360Project.services;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import cse360Project.models.ArticleGroup;
+
+/*******
+ * <p>
+ * ArticleGroupCache Class
+ * </p>
+ *
+ * <p>
+ * Description: Caches the groups each user can see, keyed by group ID, so
+ * group lists and admin checks do not query the database on every call.
+ * Group lists are small and rarely change. Callers get copies, since groups
+ * are mutable. Callers must invalidate the cache after creating, changing or
+ * deleting groups, or changing group membership.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class ArticleGroupCache {
+    // A group has a row per member; only the user's own row can make them an admin
+    private static final String GROUPS_SQL = """
+                SELECT ag.id, ag.name, ag.is_protected,
+                    MAX(CASE WHEN agu.user_id = ? THEN agu.is_admin ELSE FALSE END) AS is_admin
+                FROM article_groups ag
+                JOIN article_group_users agu ON ag.id = agu.group_id
+                WHERE ag.is_protected = FALSE OR agu.user_id = ?
+                GROUP BY ag.id, ag.name, ag.is_protected
+                ORDER BY ag.id
+            """;
+
+    private final DatabaseService databaseService;
+
+    // user UUID -> group ID -> group, in ID order
+    private final Map<String, Map<Integer, ArticleGroup>> userGroups = new HashMap<>();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param databaseService the database to load groups from.
+     */
+    public ArticleGroupCache(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    /**
+     * Gets the groups a user can see.
+     *
+     * @param userId the UUID of the user.
+     * @return copies of the groups, in ID order.
+     * @throws SQLException if a database error occurs.
+     */
+    public synchronized List<ArticleGroup> getGroups(String userId) throws SQLException {
+        List<ArticleGroup> result = new ArrayList<>();
+        for (ArticleGroup group : getUserGroups(userId).values()) {
+            result.add(copy(group));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the groups a user can see by ID.
+     *
+     * @param userId the UUID of the user.
+     * @return copies of the groups, by group ID.
+     * @throws SQLException if a database error occurs.
+     */
+    public synchronized Map<Integer, ArticleGroup> getGroupsById(String userId) throws SQLException {
+        Map<Integer, ArticleGroup> result = new LinkedHashMap<>();
+        for (ArticleGroup group : getUserGroups(userId).values()) {
+            result.put(group.getId(), copy(group));
+        }
+        return result;
+    }
+
+    /**
+     * Gets a group a user can see.
+     *
+     * @param userId  the UUID of the user.
+     * @param groupId the ID of the group.
+     * @return a copy of the group, or null if the user cannot see it.
+     * @throws SQLException if a database error occurs.
+     */
+    public synchronized ArticleGroup getGroup(String userId, int groupId) throws SQLException {
+        ArticleGroup group = getUserGroups(userId).get(groupId);
+        return group != null ? copy(group) : null;
+    }
+
+    /**
+     * Drops the groups of every user.
+     */
+    public synchronized void invalidate() {
+        userGroups.clear();
+    }
+
+    /**
+     * Gets the cached groups of a user, loading them if they are not cached.
+     *
+     * @param userId the UUID of the user.
+     * @return the groups by ID, not to be modified.
+     * @throws SQLException if a database error occurs.
+     */
+    private Map<Integer, ArticleGroup> getUserGroups(String userId) throws SQLException {
+        Map<Integer, ArticleGroup> groups = userGroups.get(userId);
+        if (groups != null) {
+            return groups;
+        }
+
+        Map<Integer, ArticleGroup> loaded = new LinkedHashMap<>();
+        databaseService.query(GROUPS_SQL, rs -> loaded.put(rs.getInt("id"),
+                new ArticleGroup(rs.getInt("id"), rs.getString("name"), rs.getBoolean("is_protected"),
+                        rs.getBoolean("is_admin"))),
+                userId, userId);
+
+        groups = Collections.unmodifiableMap(loaded);
+        userGroups.put(userId, groups);
+        return groups;
+    }
+
+    /**
+     * Copies a group so callers cannot change the cached instance.
+     *
+     * @param group the group to copy.
+     * @return the copy.
+     */
+    private static ArticleGroup copy(ArticleGroup group) {
+        return new ArticleGroup(group.getId(), group.getName(), group.isProtected(), group.isAdmin());
+    }
+}
@@ -0,0 +1,223 @@
+package cse360Project.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import cse360Project.models.HelpArticle;
+import cse360Project.models.Topic;
+import cse360Project.services.encryption.EncryptionUtils;
+
+/*******
+ * <p>
+ * ArticleRecordCodec Class
+ * </p>
+ *
+ * <p>
+ * Description: Serializes the fields of an article into compact binary
+ * records that are encrypted as a whole. The summary record holds the fields
+ * shown in article lists (title, authors, abstract and level), the content
+ * record holds keywords, body and references, so lists never decrypt bodies.
+ * Text is stored as length-prefixed UTF-8.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public final class ArticleRecordCodec {
+    // Written first in every record so the layout can change later
+    private static final byte FORMAT_VERSION = 1;
+
+    private ArticleRecordCodec() {
+    }
+
+    /**
+     * Serializes the summary fields of an article.
+     *
+     * @param article the article.
+     * @return the summary record.
+     * @throws IOException if the record cannot be written.
+     */
+    public static byte[] encodeSummary(HelpArticle article) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeChars(out, article.getTitle().toCharArray());
+            writeLines(out, article.getAuthors());
+            writeChars(out, article.getAbstractText());
+            out.writeByte(article.getLevel().ordinal());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serializes the content fields of an article.
+     *
+     * @param article the article, with content loaded.
+     * @return the content record.
+     * @throws IOException if the record cannot be written.
+     */
+    public static byte[] encodeContent(HelpArticle article) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            writeLines(out, article.getKeywords());
+            writeChars(out, article.getBody());
+            writeLines(out, article.getReferences());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a summary record into an article without content fields.
+     *
+     * @param uuid   the UUID of the article.
+     * @param record the summary record.
+     * @return the article summary.
+     * @throws IOException if the record is malformed.
+     */
+    public static HelpArticle decodeSummary(String uuid, byte[] record) throws IOException {
+        return decodeSummary(uuid, ByteBuffer.wrap(record));
+    }
+
+    /**
+     * Reads a summary record from a buffer, e.g. one decryption is reusing.
+     * Only the returned character arrays are allocated.
+     *
+     * @param uuid   the UUID of the article.
+     * @param record the remaining bytes of the buffer are the summary record.
+     * @return the article summary.
+     * @throws IOException if the record is malformed.
+     */
+    public static HelpArticle decodeSummary(String uuid, ByteBuffer record) throws IOException {
+        try {
+            checkVersion(record);
+            char[] title = readChars(record);
+            char[][] authors = readLines(record);
+            char[] abstractText = readChars(record);
+            Topic level = Topic.values()[record.get() & 0xff];
+            return new HelpArticle(uuid, title, authors, abstractText, null, null, null, new ArrayList<>(), level);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated article record", e);
+        }
+    }
+
+    /**
+     * Reads a content record into an article.
+     *
+     * @param record  the content record.
+     * @param article the article to set keywords, body and references on.
+     * @throws IOException if the record is malformed.
+     */
+    public static void decodeContent(byte[] record, HelpArticle article) throws IOException {
+        decodeContent(ByteBuffer.wrap(record), article);
+    }
+
+    /**
+     * Reads a content record from a buffer into an article. Only the
+     * character arrays set on the article are allocated.
+     *
+     * @param record  the remaining bytes of the buffer are the content record.
+     * @param article the article to set keywords, body and references on.
+     * @throws IOException if the record is malformed.
+     */
+    public static void decodeContent(ByteBuffer record, HelpArticle article) throws IOException {
+        try {
+            checkVersion(record);
+            article.setKeywords(readLines(record));
+            article.setBody(readChars(record));
+            article.setReferences(readLines(record));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated article record", e);
+        }
+    }
+
+    /**
+     * Reads and checks the format version of a record.
+     *
+     * @param record the record, positioned at its start.
+     * @throws IOException if the version is unknown.
+     */
+    private static void checkVersion(ByteBuffer record) throws IOException {
+        byte version = record.get();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unknown article record version: " + version);
+        }
+    }
+
+    /**
+     * Writes characters as length-prefixed UTF-8.
+     *
+     * @param out   the stream.
+     * @param chars the characters.
+     * @throws IOException if the stream cannot be written.
+     */
+    private static void writeChars(DataOutputStream out, char[] chars) throws IOException {
+        ByteBuffer encoded = StandardCharsets.UTF_8.encode(CharBuffer.wrap(chars));
+        out.writeInt(encoded.remaining());
+        out.write(encoded.array(), encoded.arrayOffset() + encoded.position(), encoded.remaining());
+        Arrays.fill(encoded.array(), (byte) 0);
+    }
+
+    /**
+     * Writes a count-prefixed list of character arrays.
+     *
+     * @param out   the stream.
+     * @param lines the character arrays.
+     * @throws IOException if the stream cannot be written.
+     */
+    private static void writeLines(DataOutputStream out, char[][] lines) throws IOException {
+        out.writeInt(lines.length);
+        for (char[] line : lines) {
+            writeChars(out, line);
+        }
+    }
+
+    /**
+     * Reads length-prefixed UTF-8 characters.
+     *
+     * @param record the record.
+     * @return the characters.
+     * @throws IOException if the record is malformed.
+     */
+    private static char[] readChars(ByteBuffer record) throws IOException {
+        int length = record.getInt();
+        if (length < 0 || length > record.remaining()) {
+            throw new IOException("Invalid field length in article record: " + length);
+        }
+        int end = record.position() + length;
+        ByteBuffer field = record.duplicate();
+        field.limit(end);
+        char[] chars = EncryptionUtils.decodeUtf8(field);
+        record.position(end);
+        return chars;
+    }
+
+    /**
+     * Reads a count-prefixed list of character arrays.
+     *
+     * @param record the record.
+     * @return the character arrays.
+     * @throws IOException if the record is malformed.
+     */
+    private static char[][] readLines(ByteBuffer record) throws IOException {
+        int count = record.getInt();
+        if (count < 0 || count > record.remaining()) {
+            throw new IOException("Invalid list length in article record: " + count);
+        }
+        char[][] lines = new char[count][];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = readChars(record);
+        }
+        return lines;
+    }
+}
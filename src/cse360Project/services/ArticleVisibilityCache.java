@@ -0,0 +1,286 @@
+package cse360Project.services;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/*******
+ * <p>
+ * ArticleVisibilityCache Class
+ * </p>
+ *
+ * <p>
+ * Description: Caches which articles each user can see, as bit sets, so
+ * access checks and list filtering do not join the group tables on every
+ * request. A user sees the articles of unprotected groups and of the
+ * protected groups they belong to. Article UUIDs are numbered as they are
+ * first seen. The group links are loaded once, for filtering by group. A
+ * user's visible articles are read on first use from the user_visible_articles
+ * table, one indexed lookup instead of a join, and kept sorted by UUID as
+ * well, so each page of a listing is a binary search and a slice. Callers
+ * must invalidate the cache after changing group links, group protection or
+ * group membership.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class ArticleVisibilityCache {
+    private final DatabaseService databaseService;
+
+    // article UUID <-> bit index
+    private final Map<String, Integer> articleIndexes = new HashMap<>();
+    private final List<String> articleIds = new ArrayList<>();
+
+    // Loaded on first use, null after invalidation
+    private Map<Integer, BitSet> groupArticles;
+    private final Map<String, Visibility> userVisibility = new HashMap<>();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param databaseService the database to load groups from.
+     */
+    public ArticleVisibilityCache(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    /**
+     * Checks whether a user can see an article.
+     *
+     * @param userId    the UUID of the user.
+     * @param articleId the UUID of the article.
+     * @return true if the article is in a group the user can see.
+     * @throws SQLException if a database error occurs.
+     */
+    public synchronized boolean canViewArticle(String userId, String articleId) throws SQLException {
+        Visibility visibility = getVisibility(userId);
+        Integer index = articleIndexes.get(articleId);
+        return index != null && visibility.articles.get(index);
+    }
+
+    /**
+     * Gets the articles a user can see.
+     *
+     * @param userId the UUID of the user.
+     * @return the article UUIDs.
+     * @throws SQLException if a database error occurs.
+     */
+    public synchronized List<String> getVisibleArticleIds(String userId) throws SQLException {
+        return toArticleIds(getVisibility(userId).articles);
+    }
+
+    /**
+     * Keeps the articles a user can see out of a collection.
+     *
+     * @param userId     the UUID of the user.
+     * @param articleIds the article UUIDs.
+     * @return the visible article UUIDs, in the collection's order.
+     * @throws SQLException if a database error occurs.
+     */
+    public synchronized List<String> retainVisible(String userId, Collection<String> articleIds)
+            throws SQLException {
+        Visibility visibility = getVisibility(userId);
+        List<String> result = new ArrayList<>();
+        for (String articleId : articleIds) {
+            Integer index = articleIndexes.get(articleId);
+            if (index != null && visibility.articles.get(index)) {
+                result.add(articleId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the articles a user can see that are in any of the given groups.
+     *
+     * @param userId the UUID of the user.
+     * @param groups the group IDs.
+     * @return the article UUIDs.
+     * @throws SQLException if a database error occurs.
+     */
+    public synchronized List<String> getVisibleArticleIds(String userId, Collection<Integer> groups)
+            throws SQLException {
+        BitSet articles = getGroupArticles(groups);
+        articles.and(getVisibility(userId).articles);
+        return toArticleIds(articles);
+    }
+
+    /**
+     * Gets a page of the articles a user can see, ordered by UUID. The page
+     * starts after the cursor and holds one more article than requested if
+     * there are more, so callers can tell whether another page follows.
+     * Filters are applied while walking the UUIDs, so a page is full however
+     * few articles pass.
+     *
+     * @param userId   the UUID of the user.
+     * @param groups   the group IDs to limit the page to, or null for all
+     *                 visible articles.
+     * @param filter   a test the articles on the page must pass, or null.
+     * @param cursor   the UUID to start after, or null for the first page.
+     * @param pageSize the number of articles on the page.
+     * @return up to pageSize + 1 article UUIDs in order.
+     * @throws SQLException if a database error occurs.
+     */
+    public synchronized List<String> getVisibleArticlePage(String userId, Collection<Integer> groups,
+            Predicate<String> filter, String cursor, int pageSize) throws SQLException {
+        Visibility visibility = getVisibility(userId);
+        BitSet allowed = groups != null ? getGroupArticles(groups) : null;
+
+        // seek to the first UUID after the cursor
+        int start = 0;
+        if (cursor != null) {
+            int position = Arrays.binarySearch(visibility.sortedArticles, cursor);
+            start = position >= 0 ? position + 1 : -position - 1;
+        }
+
+        List<String> page = new ArrayList<>(pageSize + 1);
+        for (int i = start; i < visibility.sortedArticles.length && page.size() <= pageSize; i++) {
+            String articleId = visibility.sortedArticles[i];
+            if ((allowed == null || allowed.get(articleIndexes.get(articleId)))
+                    && (filter == null || filter.test(articleId))) {
+                page.add(articleId);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Drops everything, after group links, group protection or group
+     * membership change.
+     */
+    public synchronized void invalidate() {
+        groupArticles = null;
+        articleIndexes.clear();
+        articleIds.clear();
+        userVisibility.clear();
+    }
+
+    /**
+     * Gets the visibility of a user, computing it if it is not cached.
+     *
+     * @param userId the UUID of the user.
+     * @return the visibility.
+     * @throws SQLException if a database error occurs.
+     */
+    private Visibility getVisibility(String userId) throws SQLException {
+        Visibility visibility = userVisibility.get(userId);
+        if (visibility != null) {
+            return visibility;
+        }
+
+        // '*' rows hold the articles of unprotected groups, visible to everyone
+        BitSet articles = new BitSet();
+        databaseService.query("SELECT article_id FROM user_visible_articles WHERE user_id IN (?, '*')",
+                rs -> articles.set(getArticleIndex(rs.getString("article_id"))), userId);
+
+        String[] sortedArticles = toArticleIds(articles).toArray(new String[0]);
+        Arrays.sort(sortedArticles);
+
+        visibility = new Visibility(articles, sortedArticles);
+        userVisibility.put(userId, visibility);
+        return visibility;
+    }
+
+    /**
+     * Gets the articles linked to any of some groups, whether or not they are
+     * visible.
+     *
+     * @param groups the group IDs.
+     * @return the bit indexes of the articles, a new set.
+     * @throws SQLException if a database error occurs.
+     */
+    private BitSet getGroupArticles(Collection<Integer> groups) throws SQLException {
+        loadGroups();
+        BitSet articles = new BitSet();
+        for (int group : groups) {
+            BitSet links = groupArticles.get(group);
+            if (links != null) {
+                articles.or(links);
+            }
+        }
+        return articles;
+    }
+
+    /**
+     * Loads the group links if they are not loaded.
+     *
+     * @throws SQLException if a database error occurs.
+     */
+    private void loadGroups() throws SQLException {
+        if (groupArticles != null) {
+            return;
+        }
+
+        Map<Integer, BitSet> links = new HashMap<>();
+        databaseService.query("SELECT group_id, article_id FROM article_group_articles", rs -> links
+                .computeIfAbsent(rs.getInt("group_id"), g -> new BitSet()).set(getArticleIndex(rs.getString("article_id"))));
+
+        groupArticles = links;
+    }
+
+    /**
+     * Gets the bit index of an article, numbering it if it is new.
+     *
+     * @param articleId the UUID of the article.
+     * @return the bit index.
+     */
+    private int getArticleIndex(String articleId) {
+        Integer index = articleIndexes.get(articleId);
+        if (index == null) {
+            index = articleIds.size();
+            articleIds.add(articleId);
+            articleIndexes.put(articleId, index);
+        }
+        return index;
+    }
+
+    /**
+     * Converts article bit indexes to UUIDs.
+     *
+     * @param articles the bit indexes.
+     * @return the article UUIDs.
+     */
+    private List<String> toArticleIds(BitSet articles) {
+        List<String> result = new ArrayList<>(articles.cardinality());
+        for (int index = articles.nextSetBit(0); index >= 0; index = articles.nextSetBit(index + 1)) {
+            result.add(articleIds.get(index));
+        }
+        return result;
+    }
+
+    /*******
+     * <p>
+     * Visibility class.
+     * </p>
+     *
+     * <p>
+     * Description: The articles a user can see, as bit indexes and as UUIDs
+     * in order.
+     * </p>
+     */
+    private static class Visibility {
+        private final BitSet articles;
+        private final String[] sortedArticles;
+
+        /**
+         * Creates a visibility.
+         *
+         * @param articles       the bit indexes of the visible articles.
+         * @param sortedArticles the UUIDs of the visible articles, sorted.
+         */
+        Visibility(BitSet articles, String[] sortedArticles) {
+            this.articles = articles;
+            this.sortedArticles = sortedArticles;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package cse360Project.services;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*******
+ * <p>
+ * ConnectionPool Class
+ * </p>
+ *
+ * <p>
+ * Description: A bounded pool of JDBC connections. Idle connections above the
+ * minimum size are evicted after a timeout, and connections that are held for
+ * too long are reported together with the stack trace of the caller that
+ * borrowed them.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class ConnectionPool {
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 5000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long acquireTimeoutMillis;
+
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private final Set<PooledConnection> borrowedConnections = new HashSet<>();
+    private final ScheduledExecutorService housekeeper;
+
+    // idle + borrowed + currently being opened
+    private int totalConnections = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates a connection pool and opens the minimum number of connections.
+     *
+     * @param url                  the JDBC URL.
+     * @param user                 the database user.
+     * @param password             the database password.
+     * @param minSize              the number of connections kept open when idle.
+     * @param maxSize              the maximum number of open connections.
+     * @param idleTimeoutMillis    how long a connection above the minimum may stay
+     *                             idle before it is closed.
+     * @param leakThresholdMillis  how long a connection may be borrowed before it
+     *                             is reported as a leak, 0 to disable.
+     * @param acquireTimeoutMillis how long to wait for a free connection.
+     * @throws SQLException if the initial connections cannot be opened.
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+            long idleTimeoutMillis, long leakThresholdMillis, long acquireTimeoutMillis) throws SQLException {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+
+        for (int i = 0; i < minSize; i++) {
+            idleConnections.push(new PooledConnection(openPhysicalConnection()));
+            totalConnections++;
+        }
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::runHousekeeping, HOUSEKEEPING_INTERVAL_MILLIS,
+                HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool. Closing the returned connection gives
+     * it back to the pool instead of closing the physical connection.
+     *
+     * @return a pooled connection.
+     * @throws SQLException if no connection becomes available in time or a new
+     *                      connection cannot be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        long deadline = System.currentTimeMillis() + acquireTimeoutMillis;
+        PooledConnection pooled = null;
+
+        synchronized (this) {
+            while (pooled == null) {
+                if (closed) {
+                    throw new SQLException("Connection pool is closed");
+                }
+                if (!idleConnections.isEmpty()) {
+                    PooledConnection candidate = idleConnections.pop();
+                    if (candidate.isUsable()) {
+                        pooled = candidate;
+                    } else {
+                        totalConnections--;
+                        candidate.closePhysical();
+                    }
+                } else if (totalConnections < maxSize) {
+                    // reserve a slot, the connection is opened outside the lock
+                    totalConnections++;
+                    break;
+                } else {
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (remaining <= 0) {
+                        throw new SQLException("Timed out waiting for a database connection (" + maxSize
+                                + " in use)");
+                    }
+                    try {
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    }
+                }
+            }
+        }
+
+        if (pooled == null) {
+            try {
+                pooled = new PooledConnection(openPhysicalConnection());
+            } catch (SQLException e) {
+                synchronized (this) {
+                    totalConnections--;
+                    notifyAll();
+                }
+                throw e;
+            }
+        }
+
+        synchronized (this) {
+            borrowedConnections.add(pooled);
+        }
+        return pooled.lease();
+    }
+
+    /**
+     * Returns a connection to the pool.
+     *
+     * @param pooled the connection to return.
+     */
+    private void release(PooledConnection pooled) {
+        boolean reusable = pooled.reset();
+
+        synchronized (this) {
+            borrowedConnections.remove(pooled);
+            if (reusable && !closed) {
+                pooled.lastReleased = System.currentTimeMillis();
+                idleConnections.push(pooled);
+            } else {
+                totalConnections--;
+            }
+            notifyAll();
+        }
+
+        if (!reusable || closed) {
+            pooled.closePhysical();
+        }
+    }
+
+    /**
+     * Closes idle connections above the minimum size that have been unused for
+     * longer than the idle timeout, and reports borrowed connections that have
+     * been held for longer than the leak threshold.
+     */
+    public void runHousekeeping() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        synchronized (this) {
+            // oldest idle connections are at the tail of the deque
+            Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+            while (iterator.hasNext() && totalConnections > minSize) {
+                PooledConnection pooled = iterator.next();
+                if (now - pooled.lastReleased >= idleTimeoutMillis) {
+                    iterator.remove();
+                    totalConnections--;
+                    evicted.add(pooled);
+                }
+            }
+
+            if (leakThresholdMillis > 0) {
+                for (PooledConnection pooled : borrowedConnections) {
+                    if (!pooled.leakReported && now - pooled.borrowedAt >= leakThresholdMillis) {
+                        pooled.leakReported = true;
+                        System.err.println("WARNING: Database connection held for " + (now - pooled.borrowedAt)
+                                + " ms, possible connection leak. Borrowed at:");
+                        pooled.borrowedBy.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        for (PooledConnection pooled : evicted) {
+            pooled.closePhysical();
+        }
+    }
+
+    /**
+     * Gets the number of idle connections.
+     *
+     * @return the number of idle connections.
+     */
+    public synchronized int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Gets the number of borrowed connections.
+     *
+     * @return the number of borrowed connections.
+     */
+    public synchronized int getActiveCount() {
+        return borrowedConnections.size();
+    }
+
+    /**
+     * Closes all idle connections and stops the pool. Borrowed connections are
+     * closed when they are returned.
+     */
+    public void close() {
+        List<PooledConnection> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(idleConnections);
+            totalConnections -= idleConnections.size();
+            idleConnections.clear();
+            notifyAll();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            pooled.closePhysical();
+        }
+    }
+
+    /**
+     * Opens a new physical connection.
+     *
+     * @return the connection.
+     * @throws SQLException if the connection cannot be opened.
+     */
+    private Connection openPhysicalConnection() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    /*******
+     * <p>
+     * PooledConnection class.
+     * </p>
+     *
+     * <p>
+     * Description: A physical connection owned by the pool, with the bookkeeping
+     * needed for eviction and leak detection.
+     * </p>
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private long lastReleased = System.currentTimeMillis();
+        private long borrowedAt;
+        private Throwable borrowedBy;
+        private boolean leakReported;
+
+        /**
+         * Creates a pooled connection.
+         *
+         * @param physical the physical connection.
+         */
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Hands out a new proxy for this connection. Every borrow gets its own
+         * proxy so a stale reference cannot return the connection twice.
+         *
+         * @return the proxy connection.
+         */
+        Connection lease() {
+            borrowedAt = System.currentTimeMillis();
+            borrowedBy = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Lease(this));
+        }
+
+        /**
+         * Checks whether the physical connection can still be used.
+         *
+         * @return true if the connection is open.
+         */
+        boolean isUsable() {
+            try {
+                return !physical.isClosed();
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Restores the default connection state before the connection is reused.
+         *
+         * @return true if the connection can be reused.
+         */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Closes the physical connection.
+         */
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing database connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /*******
+     * <p>
+     * Lease class.
+     * </p>
+     *
+     * <p>
+     * Description: Proxy handler for a borrowed connection. Closing the proxy
+     * returns the connection to the pool.
+     * </p>
+     */
+    private class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned = false;
+
+        /**
+         * Creates a lease for a pooled connection.
+         *
+         * @param pooled the pooled connection.
+         */
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    if (returned) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package cse360Project.services;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
 
 /*******
  * <p>
@@ -26,17 +32,34 @@ public class DatabaseService {
     private static final String USER = "sa";
     private static final String PASS = "";
 
+    // Connection pool settings, can be overridden with system properties
+    private static final int POOL_MIN_SIZE = Integer.getInteger("cse360.db.pool.minSize", 2);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("cse360.db.pool.maxSize", 10);
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = Long.getLong("cse360.db.pool.idleTimeoutMillis", 300_000);
+    private static final long POOL_LEAK_THRESHOLD_MILLIS = Long.getLong("cse360.db.pool.leakThresholdMillis", 30_000);
+    private static final long POOL_ACQUIRE_TIMEOUT_MILLIS = Long.getLong("cse360.db.pool.acquireTimeoutMillis", 10_000);
+
+    // Number of statements sent to the database per JDBC batch
+    private static final int BATCH_SIZE = Integer.getInteger("cse360.db.batchSize", 500);
+
+    private ConnectionPool connectionPool;
+
+    // Connection of the transaction running on the current thread, if any
+    private final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
+
     /**
      * Initializes the database service.
      */
     private DatabaseService() {
         try {
             Class.forName(JDBC_DRIVER);
-            createTables();
+            connectionPool = new ConnectionPool(DB_URL, USER, PASS, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                    POOL_IDLE_TIMEOUT_MILLIS, POOL_LEAK_THRESHOLD_MILLIS, POOL_ACQUIRE_TIMEOUT_MILLIS);
+            migrate();
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("Database driver not found", e);
         } catch (SQLException e) {
-            throw new RuntimeException("Could not create tables", e);
+            throw new RuntimeException("Could not migrate database", e);
         }
     }
 
@@ -52,28 +75,183 @@ public class DatabaseService {
         return instance;
     }
 
+    /**
+     * Brings the database schema up to date by applying pending migrations.
+     * New migrations are appended here with the next version number; applied
+     * migrations must never be changed.
+     * 
+     * @throws SQLException if an error occurs.
+     */
+    private void migrate() throws SQLException {
+        MigrationRunner runner = new MigrationRunner()
+                .add(1, "Create tables", this::createTables)
+                .add(2, "Index lookup columns",
+                        "CREATE INDEX IF NOT EXISTS idx_users_username ON users(username)",
+                        "CREATE INDEX IF NOT EXISTS idx_user_roles_user_id ON user_roles(user_id)",
+                        "CREATE INDEX IF NOT EXISTS idx_user_topics_user_id ON user_topics(user_id)",
+                        "CREATE INDEX IF NOT EXISTS idx_invitation_codes_code ON invitation_codes(code)",
+                        "CREATE INDEX IF NOT EXISTS idx_invitation_code_roles_code_id "
+                                + "ON invitation_code_roles(invitation_code_id)",
+                        "CREATE INDEX IF NOT EXISTS idx_article_group_users_user_id "
+                                + "ON article_group_users(user_id)",
+                        // TEXT columns cannot be indexed, user ids are UUIDs
+                        "ALTER TABLE help_requests ALTER COLUMN user_id SET DATA TYPE VARCHAR(36)",
+                        "CREATE INDEX IF NOT EXISTS idx_help_requests_user_id_timestamp "
+                                + "ON help_requests(user_id, timestamp)")
+                // Legacy per-field rows are upgraded by HelpArticleService, which holds the key
+                .add(3, "Add encrypted article records",
+                        "ALTER TABLE articles ADD COLUMN IF NOT EXISTS summary_record TEXT",
+                        "ALTER TABLE articles ADD COLUMN IF NOT EXISTS content_record TEXT")
+                .add(4, "Store article ciphertext as binary", this::convertArticleRecordsToBinary)
+                // Every article written so far used BouncyCastle AES/CBC
+                .add(5, "Tag articles with their cipher",
+                        "ALTER TABLE articles ADD COLUMN IF NOT EXISTS cipher VARCHAR(16)",
+                        "UPDATE articles SET cipher = 'AES-CBC'")
+                // Maintained by HelpArticleService on every group or link change; '*' marks public rows
+                .add(6, "Materialize visible articles per user",
+                        """
+                        CREATE TABLE IF NOT EXISTS user_visible_articles (
+                            user_id VARCHAR(36) NOT NULL,
+                            article_id VARCHAR(36) NOT NULL REFERENCES articles(uuid) ON DELETE CASCADE,
+                            PRIMARY KEY (user_id, article_id)
+                        )
+                        """,
+                        """
+                        INSERT INTO user_visible_articles (user_id, article_id)
+                        SELECT '*', aga.article_id FROM article_group_articles aga
+                        JOIN article_groups ag ON aga.group_id = ag.id
+                        WHERE ag.is_protected = FALSE
+                        UNION
+                        SELECT agu.user_id, aga.article_id FROM article_group_articles aga
+                        JOIN article_groups ag ON aga.group_id = ag.id
+                        JOIN article_group_users agu ON agu.group_id = ag.id
+                        WHERE ag.is_protected = TRUE
+                        """);
+
+        try (Connection connection = getConnection()) {
+            runner.migrate(connection);
+        }
+    }
+
+    /**
+     * Replaces the base64 TEXT columns holding the article records and IV with
+     * VARBINARY columns and converts the existing rows in batches. The legacy
+     * per-field columns stay base64 until HelpArticleService upgrades the rows.
+     * H2 commits every DDL statement on its own, so a failed run cannot be
+     * rolled back; each step checks the schema first so a rerun resumes where
+     * the failed one stopped.
+     * 
+     * @param connection the connection to migrate on.
+     * @throws SQLException if an error occurs.
+     */
+    private void convertArticleRecordsToBinary(Connection connection) throws SQLException {
+        String[] columns = { "iv", "summary_record", "content_record" };
+        String[] binaryTypes = { "VARBINARY(16)", "VARBINARY", "VARBINARY" };
+
+        List<String> pending = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 0; i < columns.length; i++) {
+                String column = columns[i];
+                String type = getColumnType(connection, "ARTICLES", column);
+                boolean renamed = getColumnType(connection, "ARTICLES", column + "_base64") != null;
+                if (!renamed && type != null && !type.equals("BINARY VARYING")) {
+                    statement.execute("ALTER TABLE articles ALTER COLUMN " + column + " RENAME TO " + column
+                            + "_base64");
+                    renamed = true;
+                }
+                statement.execute("ALTER TABLE articles ADD COLUMN IF NOT EXISTS " + column + " " + binaryTypes[i]);
+                if (renamed) {
+                    pending.add(column);
+                }
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            StringBuilder select = new StringBuilder("SELECT uuid");
+            StringBuilder update = new StringBuilder("UPDATE articles SET ");
+            for (int i = 0; i < pending.size(); i++) {
+                select.append(", ").append(pending.get(i)).append("_base64");
+                update.append(i > 0 ? ", " : "").append(pending.get(i)).append(" = ?");
+            }
+            select.append(" FROM articles");
+            update.append(" WHERE uuid = ?");
+
+            Base64.Decoder decoder = Base64.getDecoder();
+            try (Statement selectStatement = connection.createStatement();
+                    ResultSet rs = selectStatement.executeQuery(select.toString());
+                    PreparedStatement updateStatement = connection.prepareStatement(update.toString())) {
+                int batched = 0;
+                while (rs.next()) {
+                    for (int i = 0; i < pending.size(); i++) {
+                        String encoded = rs.getString(pending.get(i) + "_base64");
+                        updateStatement.setBytes(i + 1, encoded == null ? null : decoder.decode(encoded));
+                    }
+                    updateStatement.setString(pending.size() + 1, rs.getString("uuid"));
+                    updateStatement.addBatch();
+                    if (++batched == BATCH_SIZE) {
+                        updateStatement.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    updateStatement.executeBatch();
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (String column : pending) {
+                statement.execute("ALTER TABLE articles DROP COLUMN IF EXISTS " + column + "_base64");
+            }
+        }
+    }
+
+    /**
+     * Gets the data type of a column in the public schema.
+     * 
+     * @param connection the connection to query on.
+     * @param table      the upper case table name.
+     * @param column     the column name, in any case.
+     * @return the data type, e.g. BINARY VARYING, or null if the column does
+     *         not exist.
+     * @throws SQLException if an error occurs.
+     */
+    private static String getColumnType(Connection connection, String table, String column) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("""
+                SELECT data_type FROM information_schema.columns
+                WHERE table_schema = 'PUBLIC' AND table_name = ? AND column_name = ?
+                """)) {
+            stmt.setString(1, table);
+            stmt.setString(2, column.toUpperCase(Locale.ROOT));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString("data_type") : null;
+            }
+        }
+    }
+
     /**
      * Creates the tables in the database.
      * 
+     * @param connection the connection to create the tables on.
      * @throws SQLException if an error occurs.
      */
-    private void createTables() throws SQLException {
-        createUsersTable();
-        createArticlesTable();
-        createArticleGroupsTable();
-        createInvitationCodesTable();
-        createHelpRequestsTable();
+    private void createTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            createUsersTable(statement);
+            createArticlesTable(statement);
+            createArticleGroupsTable(statement);
+            createInvitationCodesTable(statement);
+            createHelpRequestsTable(statement);
+        }
     }
 
     /**
      * Creates the articles table in the database.
      * 
+     * @param statement the statement to execute the DDL with.
      * @throws SQLException if an error occurs.
      */
-    private void createArticlesTable() throws SQLException {
-        final Connection connection = getConnection();
-        final Statement statement = connection.createStatement();
-
+    private void createArticlesTable(Statement statement) throws SQLException {
         // Create articles table
         String articleTable = """
                 CREATE TABLE IF NOT EXISTS articles (
@@ -89,23 +267,16 @@ public class DatabaseService {
                 )
                 """;
 
-        try {
-            statement.execute(articleTable);
-        } finally {
-            statement.close();
-            connection.close();
-        }
+        statement.execute(articleTable);
     }
 
     /**
      * Creates the article groups table in the database.
      * 
+     * @param statement the statement to execute the DDL with.
      * @throws SQLException if an error occurs.
      */
-    private void createArticleGroupsTable() throws SQLException {
-        final Connection connection = getConnection();
-        final Statement statement = connection.createStatement();
-
+    private void createArticleGroupsTable(Statement statement) throws SQLException {
         String createArticleGroupsTable = """
                 CREATE TABLE IF NOT EXISTS article_groups (
                     id INT AUTO_INCREMENT PRIMARY KEY,
@@ -133,25 +304,18 @@ public class DatabaseService {
                 )
                 """;
 
-        try {
-            statement.execute(createArticleGroupsTable);
-            statement.execute(createArticleGroupArticlesTable);
-            statement.execute(createArticleGroupUsersTable);
-        } finally {
-            statement.close();
-            connection.close();
-        }
+        statement.execute(createArticleGroupsTable);
+        statement.execute(createArticleGroupArticlesTable);
+        statement.execute(createArticleGroupUsersTable);
     }
 
     /**
      * Creates the users table in the database.
      * 
+     * @param statement the statement to execute the DDL with.
      * @throws SQLException if an error occurs.
      */
-    private void createUsersTable() throws SQLException {
-        final Connection connection = getConnection();
-        final Statement statement = connection.createStatement();
-
+    private void createUsersTable(Statement statement) throws SQLException {
         // Create users table
         String createUsersTable = """
                 CREATE TABLE IF NOT EXISTS users (
@@ -190,25 +354,18 @@ public class DatabaseService {
                 )
                 """;
 
-        try {
-            statement.execute(createUsersTable);
-            statement.execute(createRolesTable);
-            statement.execute(createTopicsTable);
-        } finally {
-            statement.close();
-            connection.close();
-        }
+        statement.execute(createUsersTable);
+        statement.execute(createRolesTable);
+        statement.execute(createTopicsTable);
     }
 
     /**
      * Creates the invitation codes table in the database.
      * 
+     * @param statement the statement to execute the DDL with.
      * @throws SQLException if an error occurs.
      */
-    private void createInvitationCodesTable() throws SQLException {
-        final Connection connection = getConnection();
-        final Statement statement = connection.createStatement();
-
+    private void createInvitationCodesTable(Statement statement) throws SQLException {
         String createInvitationCodesTable = """
                 CREATE TABLE IF NOT EXISTS invitation_codes (
                     uuid VARCHAR(36) UNIQUE NOT NULL PRIMARY KEY,
@@ -227,21 +384,17 @@ public class DatabaseService {
                 )
                 """;
 
-        try {
-            statement.execute(createInvitationCodesTable);
-            statement.execute(createInvitationCodeRolesTable);
-        } finally {
-            statement.close();
-            connection.close();
-        }
+        statement.execute(createInvitationCodesTable);
+        statement.execute(createInvitationCodeRolesTable);
     }
 
     /**
      * Creates the help requests table in the database.
      * 
+     * @param statement the statement to execute the DDL with.
      * @throws SQLException if an error occurs.
      */
-    private void createHelpRequestsTable() throws SQLException {
+    private void createHelpRequestsTable(Statement statement) throws SQLException {
         String sql = """
             CREATE TABLE IF NOT EXISTS help_requests (
                 id INTEGER PRIMARY KEY AUTO_INCREMENT,
@@ -251,17 +404,99 @@ public class DatabaseService {
                 timestamp DATETIME DEFAULT CURRENT_TIMESTAMP
             )
         """;
-        executeUpdate(sql);
+        statement.execute(sql);
     }
 
     /**
-     * Gets the database connection.
+     * Gets a database connection from the connection pool. Closing the
+     * connection returns it to the pool. Inside a transaction, the
+     * transaction's connection is returned instead and closing it has no
+     * effect.
      * 
      * @return A Connection object
      * @throws SQLException if a database access error occurs
      */
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, USER, PASS);
+        Connection transaction = transactionConnection.get();
+        if (transaction != null) {
+            return joinTransaction(transaction);
+        }
+        return connectionPool.getConnection();
+    }
+
+    /**
+     * Runs work inside a single transaction. The transaction is committed when
+     * the work returns and rolled back when it throws. If a transaction is
+     * already running on the current thread, the work joins it.
+     * 
+     * @param <T>      The type of the result
+     * @param <E>      The type of exception thrown by the work
+     * @param callback The work to run
+     * @return The result of the work
+     * @throws E            if the work fails
+     * @throws SQLException if the transaction cannot be committed
+     */
+    public <T, E extends Exception> T inTransaction(TransactionCallback<T, E> callback) throws E, SQLException {
+        if (transactionConnection.get() != null) {
+            return callback.execute();
+        }
+
+        try (Connection connection = connectionPool.getConnection()) {
+            connection.setAutoCommit(false);
+            transactionConnection.set(connection);
+            try {
+                T result = callback.execute();
+                connection.commit();
+                return result;
+            } catch (Throwable t) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    t.addSuppressed(rollbackError);
+                }
+                throw t;
+            } finally {
+                // Auto-commit is restored by the pool when the connection is returned
+                transactionConnection.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs work without a result inside a single transaction.
+     * 
+     * @param <E>  The type of exception thrown by the work
+     * @param work The work to run
+     * @throws E            if the work fails
+     * @throws SQLException if the transaction cannot be committed
+     * @see #inTransaction(TransactionCallback)
+     */
+    public <E extends Exception> void runInTransaction(TransactionRunnable<E> work) throws E, SQLException {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wraps the transaction's connection so that callers can close it as usual
+     * without ending the transaction.
+     * 
+     * @param connection The transaction's connection
+     * @return A connection whose close() does nothing
+     */
+    private Connection joinTransaction(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
     }
 
     /**
@@ -273,25 +508,131 @@ public class DatabaseService {
      * @throws SQLException if a database access error occurs
      */
     public int executeUpdate(String sql, Object... params) throws SQLException {
-        Connection conn = getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        setParameters(stmt, params);
-        return stmt.executeUpdate();
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            setParameters(stmt, params);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Executes an update SQL statement once for every parameter row, sending
+     * the statements to the database in batches.
+     * 
+     * @param sql       The SQL statement to execute
+     * @param paramRows The parameters for each execution
+     * @return The number of rows affected
+     * @throws SQLException if a database access error occurs
+     */
+    public int executeBatch(String sql, List<Object[]> paramRows) throws SQLException {
+        return executeBatch(sql, paramRows, BATCH_SIZE);
+    }
+
+    /**
+     * Executes an update SQL statement once for every parameter row, sending
+     * at most batchSize statements to the database at a time. The whole batch
+     * runs in one transaction, or joins the current one.
+     * 
+     * @param sql       The SQL statement to execute
+     * @param paramRows The parameters for each execution
+     * @param batchSize The maximum number of statements per batch
+     * @return The number of rows affected
+     * @throws SQLException if a database access error occurs
+     */
+    public int executeBatch(String sql, List<Object[]> paramRows, int batchSize) throws SQLException {
+        if (paramRows.isEmpty()) {
+            return 0;
+        }
+
+        return inTransaction(() -> {
+            int affected = 0;
+            try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                for (Object[] params : paramRows) {
+                    setParameters(stmt, params);
+                    stmt.addBatch();
+                    if (++pending == batchSize) {
+                        affected += countAffected(stmt.executeBatch());
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    affected += countAffected(stmt.executeBatch());
+                }
+            }
+            return affected;
+        });
+    }
+
+    /**
+     * Sums the update counts of an executed batch.
+     * 
+     * @param counts The update counts
+     * @return The number of rows affected
+     */
+    private int countAffected(int[] counts) {
+        int affected = 0;
+        for (int count : counts) {
+            // SUCCESS_NO_INFO means the statement succeeded with an unknown count
+            affected += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return affected;
+    }
+
+    /**
+     * Executes a query and maps every row to an object.
+     * 
+     * @param <T>    The type of the mapped objects
+     * @param sql    The SQL query to execute
+     * @param mapper The mapper applied to each row
+     * @param params The parameters for the prepared statement
+     * @return The list of mapped objects
+     * @throws SQLException if a database access error occurs
+     */
+    public <T> List<T> queryForList(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        List<T> results = new ArrayList<>();
+        query(sql, rs -> results.add(mapper.mapRow(rs)), params);
+        return results;
     }
 
     /**
-     * Executes a query SQL statement.
+     * Executes a query and maps the first row to an object.
      * 
+     * @param <T>    The type of the mapped object
      * @param sql    The SQL query to execute
+     * @param mapper The mapper applied to the first row
      * @param params The parameters for the prepared statement
-     * @return A ResultSet object
+     * @return The mapped object, or null if the query returned no rows
+     * @throws SQLException if a database access error occurs
+     */
+    public <T> T queryForObject(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            setParameters(stmt, params);
+            stmt.setMaxRows(1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapper.mapRow(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Executes a query and passes each row to a handler while the cursor is
+     * open. The statement and connection are closed when all rows are
+     * processed or the handler throws.
+     * 
+     * @param sql     The SQL query to execute
+     * @param handler The handler called for each row
+     * @param params  The parameters for the prepared statement
      * @throws SQLException if a database access error occurs
      */
-    public ResultSet executeQuery(String sql, Object... params) throws SQLException {
-        Connection conn = getConnection();
-        PreparedStatement stmt = conn.prepareStatement(sql);
-        setParameters(stmt, params);
-        return stmt.executeQuery();
+    public void query(String sql, RowHandler handler, Object... params) throws SQLException {
+        try (Connection conn = getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            setParameters(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.processRow(rs);
+                }
+            }
+        }
     }
 
     /**
@@ -321,6 +662,8 @@ public class DatabaseService {
                 stmt.setTimestamp(i + 1, (Timestamp) params[i]);
             } else if (params[i] instanceof byte[]) {
                 stmt.setBytes(i + 1, (byte[]) params[i]);
+            } else if (params[i] instanceof String[]) {
+                stmt.setArray(i + 1, stmt.getConnection().createArrayOf("VARCHAR", (String[]) params[i]));
             } else {
                 throw new SQLException("Unsupported parameter type: " + params[i].getClass());
             }
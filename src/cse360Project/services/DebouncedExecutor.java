@@ -0,0 +1,146 @@
+package cse360Project.services;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/*******
+ * <p>
+ * DebouncedExecutor Class
+ * </p>
+ *
+ * <p>
+ * Description: Runs tasks on a background thread after a quiet period, where
+ * only the latest task matters, e.g. searching as the user types. Submitting
+ * a task supersedes the previous one: it is dropped if it has not started,
+ * and its result is discarded if it has. Running tasks are not interrupted,
+ * since an interrupt closes the embedded database, but they can poll whether
+ * they were superseded. Results are handed to a publisher, e.g.
+ * Platform::runLater, and dropped there too if superseded meanwhile.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class DebouncedExecutor {
+    private final ScheduledExecutorService executor;
+    private final long delayMillis;
+    private final Consumer<Runnable> publisher;
+
+    // Incremented on every submit and cancel, a task is current while it matches
+    private final AtomicLong generation = new AtomicLong();
+    private ScheduledFuture<?> pending;
+
+    /**
+     * Creates an executor with its own daemon thread.
+     *
+     * @param name        the name of the thread.
+     * @param delayMillis the quiet period before a task starts.
+     * @param publisher   runs result callbacks, e.g. on the UI thread.
+     */
+    public DebouncedExecutor(String name, long delayMillis, Consumer<Runnable> publisher) {
+        this.delayMillis = delayMillis;
+        this.publisher = publisher;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a task, superseding any previous one.
+     *
+     * @param <T>      the result type.
+     * @param task     the task, run on the background thread.
+     * @param onResult receives the result through the publisher, if the task
+     *                 is still current.
+     * @param onError  receives a failure through the publisher, if the task
+     *                 is still current.
+     */
+    public synchronized <T> void submit(Task<T> task, Consumer<T> onResult, Consumer<Exception> onError) {
+        long taskGeneration = generation.incrementAndGet();
+        BooleanSupplier superseded = () -> generation.get() != taskGeneration;
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = executor.schedule(() -> {
+            if (superseded.getAsBoolean()) {
+                return;
+            }
+            try {
+                T result = task.call(superseded);
+                publish(superseded, () -> onResult.accept(result));
+            } catch (Exception e) {
+                publish(superseded, () -> onError.accept(e));
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Supersedes the pending or running task without scheduling another.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    /**
+     * Stops the background thread. Pending tasks are dropped.
+     */
+    public void shutdown() {
+        cancel();
+        executor.shutdown();
+    }
+
+    /**
+     * Hands a callback to the publisher unless the task was superseded.
+     *
+     * @param superseded whether the task was superseded.
+     * @param callback   the callback.
+     */
+    private void publish(BooleanSupplier superseded, Runnable callback) {
+        if (superseded.getAsBoolean()) {
+            return;
+        }
+        publisher.accept(() -> {
+            if (!superseded.getAsBoolean()) {
+                callback.run();
+            }
+        });
+    }
+
+    /*******
+     * <p>
+     * Task interface.
+     * </p>
+     *
+     * <p>
+     * Description: A task that can stop early once it is superseded.
+     * </p>
+     *
+     * @param <T> the result type.
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        /**
+         * Runs the task.
+         *
+         * @param superseded returns true once a newer task was submitted, the
+         *                   result will then be discarded.
+         * @return the result.
+         * @throws Exception if the task fails.
+         */
+        T call(BooleanSupplier superseded) throws Exception;
+    }
+}
@@ -0,0 +1,270 @@
+package cse360Project.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import cse360Project.models.HelpArticle;
+
+/*******
+ * <p>
+ * DecryptedArticleCache Class
+ * </p>
+ *
+ * <p>
+ * Description: A bounded, least recently used cache of decrypted articles.
+ * Entries are stored with the IV the article was encrypted with, and a lookup
+ * with a different IV is a miss, so a rewritten article is never served from
+ * a stale entry. The cache is bounded by the total number of characters held.
+ * Summaries without content fields may be cached as well; a later full load
+ * replaces them.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class DecryptedArticleCache {
+    // Rough per-entry cost of the article object and map entry, in chars
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final long maxWeight;
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxWeight the maximum number of characters the cached articles
+     *                  may hold in total.
+     */
+    public DecryptedArticleCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Gets a cached article with its content fields.
+     *
+     * @param uuid the UUID of the article.
+     * @param iv   the IV the stored article is encrypted with.
+     * @return a copy of the cached article without groups, or null on a miss.
+     */
+    public HelpArticle get(String uuid, byte[] iv) {
+        return get(uuid, iv, true);
+    }
+
+    /**
+     * Gets a cached article.
+     *
+     * @param uuid            the UUID of the article.
+     * @param iv              the IV the stored article is encrypted with.
+     * @param contentRequired whether a cached summary without content fields
+     *                        counts as a miss.
+     * @return a copy of the cached article without groups, or null on a miss.
+     */
+    public synchronized HelpArticle get(String uuid, byte[] iv, boolean contentRequired) {
+        CacheEntry entry = entries.get(uuid);
+        if (entry != null && !Arrays.equals(entry.iv, iv)) {
+            remove(uuid);
+            entry = null;
+        }
+        if (entry == null || (contentRequired && !entry.article.hasContent())) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return copy(entry.article);
+    }
+
+    /**
+     * Adds an article to the cache, evicting the least recently used
+     * articles if the cache is full. A summary does not replace a cached full
+     * article with the same IV.
+     *
+     * @param iv      the IV the stored article is encrypted with.
+     * @param article the decrypted article or summary.
+     */
+    public synchronized void put(byte[] iv, HelpArticle article) {
+        CacheEntry existing = entries.get(article.getUuid());
+        if (existing != null && Arrays.equals(existing.iv, iv) && existing.article.hasContent()
+                && !article.hasContent()) {
+            return;
+        }
+        remove(article.getUuid());
+
+        long articleWeight = weigh(article);
+        if (articleWeight > maxWeight) {
+            return;
+        }
+
+        entries.put(article.getUuid(), new CacheEntry(iv, copy(article), articleWeight));
+        weight += articleWeight;
+
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (weight > maxWeight && iterator.hasNext()) {
+            weight -= iterator.next().getValue().weight;
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Removes an article from the cache.
+     *
+     * @param uuid the UUID of the article.
+     */
+    public synchronized void invalidate(String uuid) {
+        remove(uuid);
+    }
+
+    /**
+     * Removes all articles from the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Gets the number of cached articles.
+     *
+     * @return the number of cached articles.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total weight of the cached articles.
+     *
+     * @return the number of characters held.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Gets the number of lookups that found a valid entry.
+     *
+     * @return the hit count.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups that did not find a valid entry.
+     *
+     * @return the miss count.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of articles evicted to stay within the weight limit.
+     *
+     * @return the eviction count.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Removes an entry and updates the weight.
+     *
+     * @param uuid the UUID of the article.
+     */
+    private void remove(String uuid) {
+        CacheEntry removed = entries.remove(uuid);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    /**
+     * Copies an article so callers cannot change the cached instance. Field
+     * arrays are shared, they are replaced rather than modified by setters.
+     *
+     * @param article the article to copy.
+     * @return the copy, with an empty group list.
+     */
+    private static HelpArticle copy(HelpArticle article) {
+        return new HelpArticle(article.getUuid(), article.getTitle().toCharArray(), article.getAuthors(),
+                article.getAbstractText(), article.getKeywords(), article.getBody(), article.getReferences(),
+                new ArrayList<>(), article.getLevel());
+    }
+
+    /**
+     * Estimates the memory an article holds, in characters.
+     *
+     * @param article the article.
+     * @return the weight of the article.
+     */
+    private static long weigh(HelpArticle article) {
+        return ENTRY_OVERHEAD + article.getUuid().length() + article.getTitle().length()
+                + length(article.getAbstractText()) + length(article.getBody()) + length(article.getAuthors())
+                + length(article.getKeywords()) + length(article.getReferences());
+    }
+
+    /**
+     * Gets the length of a character array.
+     *
+     * @param chars the array, may be null.
+     * @return the length.
+     */
+    private static long length(char[] chars) {
+        return chars == null ? 0 : chars.length;
+    }
+
+    /**
+     * Gets the total length of a list of character arrays.
+     *
+     * @param lines the arrays, may be null.
+     * @return the total length.
+     */
+    private static long length(char[][] lines) {
+        long total = 0;
+        if (lines != null) {
+            for (char[] line : lines) {
+                total += length(line);
+            }
+        }
+        return total;
+    }
+
+    /*******
+     * <p>
+     * CacheEntry class.
+     * </p>
+     *
+     * <p>
+     * Description: A cached article with its IV and weight.
+     * </p>
+     */
+    private static class CacheEntry {
+        private final byte[] iv;
+        private final HelpArticle article;
+        private final long weight;
+
+        /**
+         * Creates a cache entry.
+         *
+         * @param iv      the IV the stored article is encrypted with.
+         * @param article the decrypted article.
+         * @param weight  the weight of the article.
+         */
+        CacheEntry(byte[] iv, HelpArticle article, long weight) {
+            this.iv = iv.clone();
+            this.article = article;
+            this.weight = weight;
+        }
+    }
+}
@@ -5,22 +5,31 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import cse360Project.services.encryption.*;
+import cse360Project.services.search.ArticleSearchIndex;
+import cse360Project.services.search.FacetCounts;
+import cse360Project.services.search.SearchRefinement;
 import cse360Project.models.ArticleGroup;
 import cse360Project.models.ArticleGroupArticle;
 import cse360Project.models.ArticleGroupUser;
+import cse360Project.models.ArticlePage;
 import cse360Project.models.BackupArticleData;
 import cse360Project.models.HelpArticle;
 import cse360Project.models.Role;
@@ -47,10 +56,101 @@ import cse360Project.screens.ArticleGroupsPage.UserListItem;
  * 
  */
 public class HelpArticleService {
+    /**
+     * Reads the encrypted columns of an article row. The same map layout is
+     * stored in backups. Articles are stored as binary summary and content
+     * records; rows written before the records were added only have the
+     * base64 per-field columns until they are upgraded.
+     */
+    private static final RowMapper<Map<String, Object>> ENCRYPTED_ARTICLE_MAPPER = rs -> {
+        Map<String, Object> encryptedData = new HashMap<>();
+        encryptedData.put("uuid", rs.getString("uuid"));
+        encryptedData.put("summary_record", rs.getBytes("summary_record"));
+        encryptedData.put("content_record", rs.getBytes("content_record"));
+        encryptedData.put("title", rs.getString("title"));
+        encryptedData.put("authors", rs.getString("authors"));
+        encryptedData.put("abstract", rs.getString("abstract"));
+        encryptedData.put("keywords", rs.getString("keywords"));
+        encryptedData.put("body", rs.getString("body"));
+        encryptedData.put("references", rs.getString("references"));
+        encryptedData.put("level", rs.getString("level"));
+        encryptedData.put("iv", rs.getBytes("iv"));
+        encryptedData.put("cipher", rs.getString("cipher"));
+        return encryptedData;
+    };
+
+    /**
+     * Columns needed to list an article. Keywords, body and references are
+     * only read when the full article is loaded. The per-field columns are
+     * only set on legacy rows.
+     */
+    private static final String SUMMARY_COLUMNS = "uuid, summary_record, title, authors, abstract, level, iv, cipher";
+
+    /**
+     * Reads the encrypted columns selected by SUMMARY_COLUMNS.
+     */
+    private static final RowMapper<Map<String, Object>> ENCRYPTED_SUMMARY_MAPPER = rs -> {
+        Map<String, Object> encryptedData = new HashMap<>();
+        encryptedData.put("uuid", rs.getString("uuid"));
+        encryptedData.put("summary_record", rs.getBytes("summary_record"));
+        encryptedData.put("title", rs.getString("title"));
+        encryptedData.put("authors", rs.getString("authors"));
+        encryptedData.put("abstract", rs.getString("abstract"));
+        encryptedData.put("level", rs.getString("level"));
+        encryptedData.put("iv", rs.getBytes("iv"));
+        encryptedData.put("cipher", rs.getString("cipher"));
+        return encryptedData;
+    };
+
+    /**
+     * Stores the records, IV and cipher of an article and clears the per-field
+     * columns of legacy rows. Takes summary_record, content_record, iv, cipher
+     * and uuid.
+     */
+    private static final String UPDATE_ARTICLE_RECORDS_SQL = """
+            UPDATE articles SET summary_record = ?, content_record = ?, iv = ?, cipher = ?, title = NULL,
+            authors = NULL, abstract = NULL, keywords = NULL, body = NULL, references = NULL, level = NULL
+            WHERE uuid = ?
+            """;
+
+    /**
+     * Derives the user_visible_articles rows of some articles from the group
+     * tables: a row with the user ID '*' for an article in an unprotected
+     * group, and a row per member for an article in a protected group. Takes
+     * the article UUIDs as an array, twice.
+     */
+    private static final String INSERT_VISIBLE_ARTICLES_SQL = """
+            INSERT INTO user_visible_articles (user_id, article_id)
+            SELECT '*', aga.article_id FROM article_group_articles aga
+            JOIN article_groups ag ON aga.group_id = ag.id
+            WHERE ag.is_protected = FALSE AND aga.article_id = ANY(?)
+            UNION
+            SELECT agu.user_id, aga.article_id FROM article_group_articles aga
+            JOIN article_groups ag ON aga.group_id = ag.id
+            JOIN article_group_users agu ON agu.group_id = ag.id
+            WHERE ag.is_protected = TRUE AND aga.article_id = ANY(?)
+            """;
+
+    // Decrypted records are read from a buffer reused per thread; larger ones get a temporary buffer
+    private static final int MAX_RETAINED_RECORD_BUFFER = 1 << 20;
+    private static final ThreadLocal<ByteBuffer> RECORD_BUFFER = ThreadLocal
+            .withInitial(() -> ByteBuffer.allocate(4096));
+
+    // Upper bound on the characters held by decrypted cached articles
+    private static final long ARTICLE_CACHE_MAX_CHARS = Long.getLong("cse360.articleCache.maxChars", 8_000_000);
+
     private EncryptionService encryptionService;
     private DatabaseService databaseService;
     private UserService userService;
     private static HelpArticleService instance;
+    private final DecryptedArticleCache articleCache = new DecryptedArticleCache(ARTICLE_CACHE_MAX_CHARS);
+    // Built on the first search, then kept current by every write; guarded by itself
+    private final ArticleSearchIndex searchIndex = new ArticleSearchIndex();
+    private boolean searchIndexBuilt = false;
+    // Articles visible to each user, invalidated by every change to group links or membership
+    private ArticleVisibilityCache visibilityCache;
+    // Groups visible to each user, invalidated by every change to groups or membership
+    private ArticleGroupCache groupCache;
 
     /**
      * Creates HelpArticleService and initializes EncryptionService.
@@ -61,6 +161,13 @@ public class HelpArticleService {
         encryptionService = new EncryptionService();
         databaseService = DatabaseService.getInstance();
         userService = UserService.getInstance();
+        visibilityCache = new ArticleVisibilityCache(databaseService);
+        groupCache = new ArticleGroupCache(databaseService);
+        userService.addMembershipListener(() -> {
+            visibilityCache.invalidate();
+            groupCache.invalidate();
+        });
+        upgradeLegacyArticles();
     }
 
     /**
@@ -79,6 +186,16 @@ public class HelpArticleService {
         return instance;
     }
 
+    /**
+     * Gets the cache of decrypted articles, e.g. to read its hit and miss
+     * counts.
+     * 
+     * @return the article cache.
+     */
+    public DecryptedArticleCache getArticleCache() {
+        return articleCache;
+    }
+
     /**
      * Encrypts and modifies an article in the database.
      * 
@@ -90,31 +207,57 @@ public class HelpArticleService {
         // Create unique IV
         byte[] iv = EncryptionUtils.getInitializationVector(UUID.randomUUID().toString().toCharArray());
 
-        // Encrypt fields
-        String encryptedTitle = encryptField(article.getTitle(), iv);
-        String encryptedAuthors = encryptField(charArraysToString(article.getAuthors()), iv);
-        String encryptedAbstract = encryptField(article.getAbstractText(), iv);
-        String encryptedKeywords = encryptField(charArraysToString(article.getKeywords()), iv);
-        String encryptedBody = encryptField(article.getBody(), iv);
-        String encryptedReferences = encryptField(charArraysToString(article.getReferences()), iv);
-        String encryptedLevel = encryptField(article.getLevel().toString(), iv);
-
-        String encodedIV = Base64.getEncoder().encodeToString(iv);
+        // Encrypt the summary and content records, one cipher call each
+        byte[] encryptedSummary = encryptRecord(ArticleRecordCodec.encodeSummary(article), iv);
+        byte[] encryptedContent = encryptRecord(ArticleRecordCodec.encodeContent(article), iv);
 
         // Prepare SQL statement
-        String insertArticleSql = "INSERT INTO articles (title, authors, abstract, keywords, body, references, level, iv, uuid) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        String updateArticleSql = "UPDATE articles SET title = ?, authors = ?, abstract = ?, keywords = ?, body = ?, references = ?, level = ?, iv = ? WHERE uuid = ?";
+        String insertArticleSql = """
+                INSERT INTO articles (summary_record, content_record, iv, cipher, uuid) VALUES (?, ?, ?, ?, ?)
+                """;
+
+        // Write the article and its group links in one transaction
+        boolean linksChanged = databaseService.inTransaction(() -> {
+            databaseService.executeUpdate(update ? UPDATE_ARTICLE_RECORDS_SQL : insertArticleSql,
+                    encryptedSummary, encryptedContent, iv, encryptionService.getDefaultAlgorithm(),
+                    article.getUuid());
 
-        databaseService.executeUpdate(update ? updateArticleSql : insertArticleSql,
-                encryptedTitle, encryptedAuthors, encryptedAbstract, encryptedKeywords, encryptedBody,
-                encryptedReferences, encryptedLevel, encodedIV, article.getUuid());
+            // Only write the group links that were added or removed
+            Set<Integer> storedGroups = update ? new HashSet<>(getArticleGroupIds(article.getUuid()))
+                    : new HashSet<>();
+            Set<Integer> requestedGroups = new HashSet<>(article.getGroups());
+            List<Object[]> removedRows = new ArrayList<>();
+            for (int group : storedGroups) {
+                if (!requestedGroups.contains(group)) {
+                    removedRows.add(new Object[] { group, article.getUuid() });
+                }
+            }
+            List<Object[]> addedRows = new ArrayList<>();
+            for (int group : requestedGroups) {
+                if (!storedGroups.contains(group)) {
+                    addedRows.add(new Object[] { group, article.getUuid() });
+                }
+            }
+            databaseService.executeBatch("DELETE FROM article_group_articles WHERE group_id = ? AND article_id = ?",
+                    removedRows);
+            databaseService.executeBatch("INSERT INTO article_group_articles (group_id, article_id) VALUES (?, ?)",
+                    addedRows);
 
-        // create or update groups if needed
-        // delete, then insert
-        databaseService.executeUpdate("DELETE FROM article_group_articles WHERE article_id = ?", article.getUuid());
-        for (int group : article.getGroups()) {
-            databaseService.executeUpdate("INSERT INTO article_group_articles (group_id, article_id) VALUES (?, ?)",
-                    group, article.getUuid());
+            if (removedRows.isEmpty() && addedRows.isEmpty()) {
+                return false;
+            }
+            refreshVisibleArticles(Collections.singletonList(article.getUuid()));
+            return true;
+        });
+
+        articleCache.invalidate(article.getUuid());
+        if (linksChanged) {
+            visibilityCache.invalidate();
+        }
+        synchronized (searchIndex) {
+            if (searchIndexBuilt) {
+                searchIndex.index(article);
+            }
         }
     }
 
@@ -127,6 +270,11 @@ public class HelpArticleService {
     public void deleteArticle(String uuid) throws SQLException {
         String deleteSQL = "DELETE FROM articles WHERE uuid = ?";
         databaseService.executeUpdate(deleteSQL, uuid);
+        articleCache.invalidate(uuid);
+        visibilityCache.invalidate();
+        synchronized (searchIndex) {
+            searchIndex.remove(uuid);
+        }
     }
 
     /**
@@ -136,33 +284,305 @@ public class HelpArticleService {
      * @throws Exception if decryption or database error occurs.
      */
     public List<HelpArticle> getAllArticles() throws Exception {
-        String query = """
-                SELECT DISTINCT *
-                FROM articles a
-                JOIN article_group_articles aga ON a.uuid = aga.article_id
-                JOIN article_groups ag ON aga.group_id = ag.id
-                LEFT JOIN article_group_users agu ON ag.id = agu.group_id
-                WHERE (ag.is_protected = FALSE OR agu.user_id = ?)
-                AND (agu.user_id IS NULL OR agu.group_id = ag.id);
-                """;
+        return loadArticles(false, visibilityCache.getVisibleArticleIds(userService.getCurrentUser().getUuid()));
+    }
 
-        List<HelpArticle> articles = new ArrayList<>();
-        Set<String> seenUuids = new HashSet<>(); // Track seen UUIDs
-
-        ResultSet rs = databaseService.executeQuery(query, userService.getCurrentUser().getUuid());
-        while (rs.next()) {
-            String uuid = rs.getString("uuid");
-            if (!seenUuids.contains(uuid)) { // Check if UUID has been seen
-                HelpArticle article = decryptArticle(rs);
-                List<Integer> groups = getArticleGroupIds(article.getUuid());
-                article.setGroups(groups);
-                articles.add(article);
-                seenUuids.add(uuid); // Mark UUID as seen
-            }
+    /**
+     * Fetches all articles as summaries, without keywords, body and
+     * references. Use getArticle to load an article in full.
+     * 
+     * @return list of all article summaries.
+     * @throws Exception if decryption or database error occurs.
+     */
+    public List<HelpArticle> getArticleSummaries() throws Exception {
+        return loadArticles(true, visibilityCache.getVisibleArticleIds(userService.getCurrentUser().getUuid()));
+    }
+
+    /**
+     * Fetches a page of article summaries, ordered by UUID. Pages are found
+     * by seeking past the cursor in the visible UUIDs, which the visibility
+     * cache keeps sorted, so each page costs the same however deep it is.
+     * 
+     * @param cursor   the cursor of the previous page, or null for the first
+     *                 page.
+     * @param pageSize the maximum number of articles on the page.
+     * @return the page of article summaries.
+     * @throws Exception if decryption or database error occurs.
+     */
+    public ArticlePage getArticleSummaryPage(String cursor, int pageSize) throws Exception {
+        return loadArticlePage(null, Collections.emptySet(), Collections.emptySet(), cursor, pageSize);
+    }
+
+    /**
+     * Fetches a page of article summaries in any of the given groups, ordered
+     * by UUID.
+     * 
+     * @param groups   list of group IDs.
+     * @param cursor   the cursor of the previous page, or null for the first
+     *                 page.
+     * @param pageSize the maximum number of articles on the page.
+     * @return the page of article summaries.
+     * @throws Exception if decryption or database error occurs.
+     */
+    public ArticlePage getArticleSummaryPageByGroups(List<Integer> groups, String cursor, int pageSize)
+            throws Exception {
+        return loadArticlePage(groups, Collections.emptySet(), Collections.emptySet(), cursor, pageSize);
+    }
+
+    /**
+     * Fetches a page of article summaries in any of the given groups that
+     * have any of the given keywords and levels, ordered by UUID. The filters
+     * are applied to the visible UUIDs before any article is loaded, so every
+     * page but the last is full.
+     * 
+     * @param groups   list of group IDs, empty for all groups.
+     * @param keywords the keywords, compared ignoring case, empty for any.
+     * @param levels   the levels, empty for any.
+     * @param cursor   the cursor of the previous page, or null for the first
+     *                 page.
+     * @param pageSize the maximum number of articles on the page.
+     * @return the page of article summaries.
+     * @throws Exception if decryption or database error occurs, or the index
+     *                   cannot be built.
+     */
+    public ArticlePage getArticleSummaryPage(List<Integer> groups, Set<String> keywords, Set<Topic> levels,
+            String cursor, int pageSize) throws Exception {
+        return loadArticlePage(groups.isEmpty() ? null : groups, keywords, levels, cursor, pageSize);
+    }
+
+    /**
+     * Loads the page of article summaries after a cursor.
+     * 
+     * @param groups   the group IDs to limit the page to, or null for all
+     *                 visible articles.
+     * @param keywords the keywords, empty for any.
+     * @param levels   the levels, empty for any.
+     * @param cursor   the UUID to start after, or null for the first page.
+     * @param pageSize the maximum number of articles on the page.
+     * @return the page of article summaries.
+     * @throws Exception if decryption or database error occurs.
+     */
+    private ArticlePage loadArticlePage(List<Integer> groups, Set<String> keywords, Set<Topic> levels,
+            String cursor, int pageSize) throws Exception {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        // Facets are only known to the search index, which is built on first use
+        Predicate<String> filter = null;
+        if (!keywords.isEmpty() || !levels.isEmpty()) {
+            ensureSearchIndex();
+            filter = searchIndex.facetFilter(keywords, levels);
+        }
+
+        // one extra UUID tells whether another page follows
+        List<String> pageIds = visibilityCache.getVisibleArticlePage(userService.getCurrentUser().getUuid(), groups,
+                filter, cursor, pageSize);
+        boolean hasNext = pageIds.size() > pageSize;
+        if (hasNext) {
+            pageIds = pageIds.subList(0, pageSize);
+        }
+
+        List<HelpArticle> articles = loadArticles(true, pageIds);
+        articles.sort(Comparator.comparing(HelpArticle::getUuid));
+
+        String nextCursor = hasNext ? pageIds.get(pageSize - 1) : null;
+        return new ArticlePage(articles, nextCursor);
+    }
+
+    /**
+     * Fetches a visible article in full.
+     * 
+     * @param uuid the UUID of the article.
+     * @return the article, or null if it does not exist or is not visible.
+     * @throws Exception if decryption or database error occurs.
+     */
+    public HelpArticle getArticle(String uuid) throws Exception {
+        if (!visibilityCache.canViewArticle(userService.getCurrentUser().getUuid(), uuid)) {
+            return null;
+        }
+        List<HelpArticle> articles = loadArticles(false, Collections.singletonList(uuid));
+        return articles.isEmpty() ? null : articles.get(0);
+    }
+
+    /**
+     * Loads articles and their group IDs with two set-based queries instead of
+     * one group lookup per article. The UUIDs are passed as one array
+     * parameter.
+     * 
+     * @param summaries  whether to load summaries only.
+     * @param articleIds the UUIDs of the articles to load.
+     * @return list of decrypted articles.
+     * @throws Exception if decryption or database error occurs.
+     */
+    private List<HelpArticle> loadArticles(boolean summaries, Collection<String> articleIds) throws Exception {
+        if (articleIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String articlesQuery = "SELECT " + (summaries ? SUMMARY_COLUMNS : "*")
+                + " FROM articles WHERE uuid = ANY(?)";
+        String groupsQuery = "SELECT article_id, group_id FROM article_group_articles WHERE article_id = ANY(?)";
+        String[] ids = articleIds.toArray(new String[0]);
+
+        List<Map<String, Object>> encryptedArticles = databaseService.queryForList(articlesQuery,
+                summaries ? ENCRYPTED_SUMMARY_MAPPER : ENCRYPTED_ARTICLE_MAPPER, (Object) ids);
+        Map<String, List<Integer>> articleGroupIds = getArticleGroupIds(groupsQuery, (Object) ids);
+
+        // Large batches are decrypted in parallel, the cache and encryption service are thread-safe
+        List<HelpArticle> articles = new ArrayList<>(encryptionService.decryptAll(encryptedArticles,
+                summaries ? this::decryptArticleSummary : this::decryptArticle));
+        for (HelpArticle article : articles) {
+            article.setGroups(articleGroupIds.getOrDefault(article.getUuid(), new ArrayList<>()));
         }
         return articles;
     }
 
+    /**
+     * Searches the visible articles for a query, as a substring of the
+     * title, abstract or authors, or as words starting the words of any
+     * field.
+     * 
+     * @param query the search text.
+     * @return the UUIDs of the matching articles.
+     * @throws Exception if the index cannot be built.
+     */
+    public Set<String> searchArticleIds(String query) throws Exception {
+        ensureSearchIndex();
+        return new HashSet<>(retainVisible(searchIndex.search(query)));
+    }
+
+    /**
+     * Searches articles for a query, as {@link #searchArticleIds(String)}
+     * does, and ranks the matches by relevance.
+     * 
+     * @param query      the search text.
+     * @param visibleIds the UUIDs of the articles the caller lists.
+     * @param limit      the maximum number of results.
+     * @return the UUIDs of the best matching articles, most relevant first.
+     * @throws Exception if the index cannot be built.
+     */
+    public List<String> searchArticleIds(String query, Collection<String> visibleIds, int limit) throws Exception {
+        return searchArticleIds(query, visibleIds, limit, null);
+    }
+
+    /**
+     * Searches and ranks articles as
+     * {@link #searchArticleIds(String, Collection, int)} does, refining the
+     * caller's previous matches while the query is being typed.
+     * 
+     * @param query      the search text.
+     * @param visibleIds the UUIDs of the articles the caller lists.
+     * @param limit      the maximum number of results.
+     * @param refinement the caller's previous matches, or null.
+     * @return the UUIDs of the best matching articles, most relevant first.
+     * @throws Exception if the index cannot be built.
+     */
+    public List<String> searchArticleIds(String query, Collection<String> visibleIds, int limit,
+            SearchRefinement refinement) throws Exception {
+        if (visibleIds == null) {
+            throw new IllegalArgumentException("Visible article IDs are required");
+        }
+        ensureSearchIndex();
+        return searchIndex.search(query, retainVisible(visibleIds), limit, refinement);
+    }
+
+    /**
+     * Fetches the UUIDs of the visible articles without decrypting them.
+     * 
+     * @param groups list of group IDs to restrict to, empty for all groups.
+     * @return the article UUIDs.
+     * @throws SQLException if a database error occurs.
+     */
+    public List<String> getVisibleArticleIds(List<Integer> groups) throws SQLException {
+        String userId = userService.getCurrentUser().getUuid();
+        return groups.isEmpty() ? visibilityCache.getVisibleArticleIds(userId)
+                : visibilityCache.getVisibleArticleIds(userId, groups);
+    }
+
+    /**
+     * Filters articles by keywords and levels using the facet index. An
+     * article passes if it has any of the keywords, when keywords are given,
+     * and any of the levels, when levels are given.
+     * 
+     * @param articleIds the UUIDs of the articles to filter.
+     * @param keywords   the keywords, compared ignoring case, empty for any.
+     * @param levels     the levels, empty for any.
+     * @return the UUIDs of the visible articles that pass.
+     * @throws Exception if the index cannot be built.
+     */
+    public Set<String> filterArticleIds(Collection<String> articleIds, Set<String> keywords, Set<Topic> levels)
+            throws Exception {
+        ensureSearchIndex();
+        return searchIndex.filter(retainVisible(articleIds), keywords, levels);
+    }
+
+    /**
+     * Counts articles per keyword and level using the facet index.
+     * 
+     * @param articleIds the UUIDs of the articles to count.
+     * @return the counts over the visible articles.
+     * @throws Exception if the index cannot be built.
+     */
+    public FacetCounts countArticleFacets(Collection<String> articleIds) throws Exception {
+        ensureSearchIndex();
+        return searchIndex.countFacets(retainVisible(articleIds));
+    }
+
+    /**
+     * Keeps the articles the current user can see, so the search index, which
+     * holds every article, never reveals articles of protected groups.
+     * 
+     * @param articleIds the article UUIDs.
+     * @return the visible article UUIDs.
+     * @throws SQLException if a database error occurs.
+     */
+    private List<String> retainVisible(Collection<String> articleIds) throws SQLException {
+        return visibilityCache.retainVisible(userService.getCurrentUser().getUuid(), articleIds);
+    }
+
+    /**
+     * Builds the search index from all articles if it has not been built.
+     * 
+     * @throws Exception if decryption or database error occurs.
+     */
+    private void ensureSearchIndex() throws Exception {
+        synchronized (searchIndex) {
+            if (!searchIndexBuilt) {
+                List<Map<String, Object>> encryptedArticles = databaseService.queryForList("SELECT * FROM articles",
+                        ENCRYPTED_ARTICLE_MAPPER);
+                searchIndex.clear();
+                searchIndex.indexAll(encryptionService.decryptAll(encryptedArticles, this::decryptArticle));
+                searchIndexBuilt = true;
+            }
+        }
+    }
+
+    /**
+     * Drops the search index so it is rebuilt on the next search.
+     */
+    private void resetSearchIndex() {
+        synchronized (searchIndex) {
+            searchIndex.clear();
+            searchIndexBuilt = false;
+        }
+    }
+
+    /**
+     * Loads article to group links and groups them by article.
+     * 
+     * @param query  query selecting article_id and group_id columns.
+     * @param params the query parameters.
+     * @return group IDs by article UUID.
+     * @throws SQLException if a database error occurs.
+     */
+    private Map<String, List<Integer>> getArticleGroupIds(String query, Object... params) throws SQLException {
+        Map<String, List<Integer>> articleGroupIds = new HashMap<>();
+        databaseService.query(query,
+                rs -> articleGroupIds.computeIfAbsent(rs.getString("article_id"), uuid -> new ArrayList<>())
+                        .add(rs.getInt("group_id")),
+                params);
+        return articleGroupIds;
+    }
+
     /**
      * /**
      * Backs up articles to a user-specified file.
@@ -184,28 +604,20 @@ public class HelpArticleService {
         } else {
             articlesToBackup = getArticlesByGroups(selectedGroups);
             for (int groupId : selectedGroups) {
-                groupsToBackup.addAll(getAllGroups().stream()
-                        .filter(g -> g.getId() == groupId)
-                        .collect(Collectors.toList()));
+                ArticleGroup group = getGroup(groupId);
+                if (group != null) {
+                    groupsToBackup.add(group);
+                }
             }
         }
 
         // Get encrypted articles data from DB
-        List<Map<String, String>> encryptedArticles = new ArrayList<>();
+        List<Map<String, Object>> encryptedArticles = new ArrayList<>();
         for (HelpArticle article : articlesToBackup) {
             String query = "SELECT * FROM articles WHERE uuid = ?";
-            ResultSet rs = databaseService.executeQuery(query, article.getUuid());
-            if (rs.next()) {
-                Map<String, String> encryptedData = new HashMap<>();
-                encryptedData.put("uuid", rs.getString("uuid"));
-                encryptedData.put("title", rs.getString("title"));
-                encryptedData.put("authors", rs.getString("authors"));
-                encryptedData.put("abstract", rs.getString("abstract"));
-                encryptedData.put("keywords", rs.getString("keywords"));
-                encryptedData.put("body", rs.getString("body"));
-                encryptedData.put("references", rs.getString("references"));
-                encryptedData.put("level", rs.getString("level"));
-                encryptedData.put("iv", rs.getString("iv"));
+            Map<String, Object> encryptedData = databaseService.queryForObject(query, ENCRYPTED_ARTICLE_MAPPER,
+                    article.getUuid());
+            if (encryptedData != null) {
                 encryptedArticles.add(encryptedData);
             }
         }
@@ -214,22 +626,20 @@ public class HelpArticleService {
         for (ArticleGroup group : groupsToBackup) {
             // Get group users
             String userQuery = "SELECT user_id, is_admin FROM article_group_users WHERE group_id = ?";
-            ResultSet userRs = databaseService.executeQuery(userQuery, group.getId());
-            while (userRs.next()) {
-                groupUsersToBackup.add(new ArticleGroupUser(
-                        group.getId(),
-                        userRs.getString("user_id"),
-                        userRs.getBoolean("is_admin")));
-            }
+            groupUsersToBackup.addAll(databaseService.queryForList(userQuery,
+                    userRs -> new ArticleGroupUser(
+                            group.getId(),
+                            userRs.getString("user_id"),
+                            userRs.getBoolean("is_admin")),
+                    group.getId()));
 
             // Get group articles
             String articleQuery = "SELECT article_id FROM article_group_articles WHERE group_id = ?";
-            ResultSet articleRs = databaseService.executeQuery(articleQuery, group.getId());
-            while (articleRs.next()) {
-                groupArticlesToBackup.add(new ArticleGroupArticle(
-                        group.getId(),
-                        articleRs.getString("article_id")));
-            }
+            groupArticlesToBackup.addAll(databaseService.queryForList(articleQuery,
+                    articleRs -> new ArticleGroupArticle(
+                            group.getId(),
+                            articleRs.getString("article_id")),
+                    group.getId()));
         }
 
         // Create full backup data
@@ -253,53 +663,56 @@ public class HelpArticleService {
      * @throws Exception if I/O or decryption error occurs.
      */
     public void restoreArticles(String filename, boolean merge) throws Exception {
+        BackupArticleData backupData;
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filename))) {
-            BackupArticleData backupData = (BackupArticleData) ois.readObject();
+            backupData = (BackupArticleData) ois.readObject();
+        }
 
+        // Restore in one transaction so a failed restore leaves the database unchanged
+        databaseService.runInTransaction(() -> {
             // Clean DB if replacing
             if (!merge) {
                 cleanDB();
             }
 
+            // Look up existing ids once instead of checking every row
+            Set<Integer> existingGroupIds = new HashSet<>();
+            Set<String> existingArticleIds = new HashSet<>();
+            if (merge) {
+                existingGroupIds.addAll(
+                        databaseService.queryForList("SELECT id FROM article_groups", rs -> rs.getInt("id")));
+                existingArticleIds.addAll(
+                        databaseService.queryForList("SELECT uuid FROM articles", rs -> rs.getString("uuid")));
+            }
+
             // First restore groups
+            List<Object[]> groupUpdates = new ArrayList<>();
+            List<Object[]> groupInserts = new ArrayList<>();
             for (ArticleGroup group : backupData.getGroups()) {
                 // if merging, update based on ID
-                if (merge) {
-                    String checkSQL = "SELECT id FROM article_groups WHERE id = ?";
-                    ResultSet rs = databaseService.executeQuery(checkSQL, group.getId());
-                    if (rs.next()) {
-                        databaseService.executeUpdate(
-                                "UPDATE article_groups SET name = ?, is_protected = ? WHERE id = ?",
-                                group.getName(), group.isProtected(), group.getId());
-                        continue;
-                    }
+                if (existingGroupIds.contains(group.getId())) {
+                    groupUpdates.add(new Object[] { group.getName(), group.isProtected(), group.getId() });
+                } else {
+                    groupInserts.add(new Object[] { group.getId(), group.getName(), group.isProtected() });
                 }
-
-                // insert group
-                databaseService.executeUpdate(
-                        "INSERT INTO article_groups (id, name, is_protected) VALUES (?, ?, ?)",
-                        group.getId(), group.getName(), group.isProtected());
             }
+            databaseService.executeBatch("UPDATE article_groups SET name = ?, is_protected = ? WHERE id = ?",
+                    groupUpdates);
+            databaseService.executeBatch("INSERT INTO article_groups (id, name, is_protected) VALUES (?, ?, ?)",
+                    groupInserts);
 
             // Restore articles (no need to decrypt)
-            for (Map<String, String> encryptedArticle : backupData.getEncryptedArticles()) {
+            List<Object[]> articleInserts = new ArrayList<>();
+            for (Map<String, Object> encryptedArticle : backupData.getEncryptedArticles()) {
                 // if merging, skip existing articles based on ID
-                if (merge) {
-                    String checkSQL = "SELECT uuid FROM articles WHERE uuid = ?";
-                    ResultSet rs = databaseService.executeQuery(checkSQL, encryptedArticle.get("uuid"));
-                    if (rs.next()) {
-                        continue;
-                    }
+                if (existingArticleIds.contains(encryptedArticle.get("uuid"))) {
+                    continue;
                 }
 
-                // insert article
-                String insertSQL = """
-                            INSERT INTO articles (uuid, title, authors, abstract, keywords, body, references, level, iv)
-                            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-                        """;
-
-                databaseService.executeUpdate(insertSQL,
+                articleInserts.add(new Object[] {
                         encryptedArticle.get("uuid"),
+                        getBytes(encryptedArticle, "summary_record"),
+                        getBytes(encryptedArticle, "content_record"),
                         encryptedArticle.get("title"),
                         encryptedArticle.get("authors"),
                         encryptedArticle.get("abstract"),
@@ -307,41 +720,68 @@ public class HelpArticleService {
                         encryptedArticle.get("body"),
                         encryptedArticle.get("references"),
                         encryptedArticle.get("level"),
-                        encryptedArticle.get("iv"));
+                        getBytes(encryptedArticle, "iv"),
+                        getCipher(encryptedArticle) });
             }
 
+            // insert articles
+            String insertSQL = """
+                        INSERT INTO articles (uuid, summary_record, content_record, title, authors, abstract,
+                        keywords, body, references, level, iv, cipher)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                    """;
+            databaseService.executeBatch(insertSQL, articleInserts);
+
             // Next, restore relationships
 
             // Restore group users
+            List<Object[]> groupUserRows = new ArrayList<>();
             for (ArticleGroupUser groupUser : backupData.getGroupUsers()) {
-                // if merging, delete existing group users
-                if (merge) {
-                    databaseService.executeUpdate(
-                            "DELETE FROM article_group_users WHERE group_id = ? AND user_id = ?",
-                            groupUser.getGroupId(), groupUser.getUserId());
-                }
+                groupUserRows.add(new Object[] { groupUser.getGroupId(), groupUser.getUserId(), groupUser.isAdmin() });
+            }
 
-                // insert relationship
-                databaseService.executeUpdate(
-                        "INSERT INTO article_group_users (group_id, user_id, is_admin) VALUES (?, ?, ?)",
-                        groupUser.getGroupId(), groupUser.getUserId(), groupUser.isAdmin());
+            // if merging, delete existing group users
+            if (merge) {
+                databaseService.executeBatch(
+                        "DELETE FROM article_group_users WHERE group_id = ? AND user_id = ?",
+                        groupUserRows.stream().map(row -> new Object[] { row[0], row[1] })
+                                .collect(Collectors.toList()));
             }
 
+            // insert relationships
+            databaseService.executeBatch(
+                    "INSERT INTO article_group_users (group_id, user_id, is_admin) VALUES (?, ?, ?)",
+                    groupUserRows);
+
             // Restore group articles
+            List<Object[]> groupArticleRows = new ArrayList<>();
             for (ArticleGroupArticle groupArticle : backupData.getGroupArticles()) {
-                // if merging, delete existing group articles
-                if (merge) {
-                    databaseService.executeUpdate(
-                            "DELETE FROM article_group_articles WHERE group_id = ? AND article_id = ?",
-                            groupArticle.getGroupId(), groupArticle.getArticleId());
-                }
+                groupArticleRows.add(new Object[] { groupArticle.getGroupId(), groupArticle.getArticleId() });
+            }
 
-                // insert group article
-                databaseService.executeUpdate(
-                        "INSERT INTO article_group_articles (group_id, article_id) VALUES (?, ?)",
-                        groupArticle.getGroupId(), groupArticle.getArticleId());
+            // if merging, delete existing group articles
+            if (merge) {
+                databaseService.executeBatch(
+                        "DELETE FROM article_group_articles WHERE group_id = ? AND article_id = ?",
+                        groupArticleRows);
             }
-        }
+
+            // insert group articles
+            databaseService.executeBatch(
+                    "INSERT INTO article_group_articles (group_id, article_id) VALUES (?, ?)",
+                    groupArticleRows);
+
+            refreshVisibleArticles(
+                    databaseService.queryForList("SELECT uuid FROM articles", rs -> rs.getString("uuid")));
+        });
+
+        articleCache.clear();
+        visibilityCache.invalidate();
+        groupCache.invalidate();
+
+        // Backups taken before articles were stored as records hold legacy rows
+        upgradeLegacyArticles();
+        resetSearchIndex();
     }
 
     /**
@@ -351,22 +791,28 @@ public class HelpArticleService {
      * @throws Exception if an error occurs.
      */
     public List<ArticleGroup> getAllGroups() throws SQLException {
-        List<ArticleGroup> groups = new ArrayList<>();
-
-        String query = """
-                    SELECT ag.id, ag.name, agu.is_admin, ag.is_protected
-                    FROM article_groups ag
-                    JOIN article_group_users agu ON ag.id = agu.group_id
-                    WHERE ag.is_protected = FALSE OR agu.user_id = ?;
-                """;
+        return groupCache.getGroups(userService.getCurrentUser().getUuid());
+    }
 
-        ResultSet rs = databaseService.executeQuery(query, userService.getCurrentUser().getUuid());
-        while (rs.next()) {
-            groups.add(new ArticleGroup(rs.getInt("id"), rs.getString("name"), rs.getBoolean("is_protected"),
-                    rs.getBoolean("is_admin")));
-        }
+    /**
+     * Gets all groups the current user can see by ID.
+     * 
+     * @return the groups by ID.
+     * @throws SQLException if an error occurs.
+     */
+    public Map<Integer, ArticleGroup> getAllGroupsById() throws SQLException {
+        return groupCache.getGroupsById(userService.getCurrentUser().getUuid());
+    }
 
-        return groups;
+    /**
+     * Gets a group the current user can see.
+     * 
+     * @param groupId the ID of the group.
+     * @return the group, or null if it does not exist or is not visible.
+     * @throws SQLException if an error occurs.
+     */
+    public ArticleGroup getGroup(int groupId) throws SQLException {
+        return groupCache.getGroup(userService.getCurrentUser().getUuid(), groupId);
     }
 
     /**
@@ -383,28 +829,26 @@ public class HelpArticleService {
                 JOIN article_group_articles aga ON ag.id = aga.group_id
                 WHERE aga.article_id = ?;
                 """;
-        ResultSet rs = databaseService.executeQuery(query, uuid);
-        List<Integer> groups = new ArrayList<>();
-        while (rs.next()) {
-            groups.add(rs.getInt("id"));
-        }
-        return groups;
+        return databaseService.queryForList(query, rs -> rs.getInt("id"), uuid);
     }
 
     /**
-     * Gets the articles for a group.
+     * Gets the article summaries for a group, without keywords, body and
+     * references.
      * 
      * @param groupId the ID of the group.
-     * @return list of articles.
+     * @return list of article summaries.
      * @throws SQLException if an error occurs.
      */
     public List<HelpArticle> getGroupArticles(int groupId) throws SQLException {
-        String query = "SELECT * FROM articles a JOIN article_group_articles aga ON a.uuid = aga.article_id WHERE aga.group_id = ?";
-        ResultSet rs = databaseService.executeQuery(query, groupId);
+        String query = "SELECT " + SUMMARY_COLUMNS
+                + " FROM articles WHERE uuid IN (SELECT article_id FROM article_group_articles WHERE group_id = ?)";
+        List<Map<String, Object>> encryptedArticles = databaseService.queryForList(query,
+                ENCRYPTED_SUMMARY_MAPPER, groupId);
         List<HelpArticle> articles = new ArrayList<>();
-        while (rs.next()) {
+        for (Map<String, Object> encryptedArticle : encryptedArticles) {
             try {
-                HelpArticle article = decryptArticle(rs);
+                HelpArticle article = decryptArticleSummary(encryptedArticle);
                 articles.add(article);
             } catch (Exception e) {
                 System.err.println("Error decrypting article: " + e.getMessage());
@@ -423,13 +867,14 @@ public class HelpArticleService {
     public HashMap<User, Boolean> getGroupUsers(int groupId) {
         try {
             String query = "SELECT u.uuid, u.username, agu.is_admin FROM users u JOIN article_group_users agu ON u.uuid = agu.user_id WHERE agu.group_id = ?";
-            ResultSet rs = databaseService.executeQuery(query, groupId);
             HashMap<User, Boolean> users = new HashMap<>();
-            while (rs.next()) {
-                final User user = new User(rs.getString("uuid"), rs.getString("username"), null);
+            databaseService.query(query,
+                    rs -> users.put(new User(rs.getString("uuid"), rs.getString("username"), null),
+                            rs.getBoolean("is_admin")),
+                    groupId);
+            for (User user : users.keySet()) {
                 final List<Role> roles = userService.loadUserRoles(user);
                 user.setRoles(roles);
-                users.put(user, rs.getBoolean("is_admin"));
             }
             return users;
         } catch (SQLException e) {
@@ -447,17 +892,32 @@ public class HelpArticleService {
      * @throws Exception if an error occurs.
      */
     public List<HelpArticle> getArticlesByGroups(List<Integer> groups) throws Exception {
-        List<HelpArticle> allArticles = getAllArticles();
-        return allArticles.stream()
-                .filter(article -> {
-                    for (Integer articleGroup : article.getGroups()) {
-                        if (groups.contains(articleGroup)) {
-                            return true;
-                        }
-                    }
-                    return false;
-                })
-                .collect(Collectors.toList());
+        return loadArticlesByGroups(false, groups);
+    }
+
+    /**
+     * Gets article summaries for groups, without keywords, body and
+     * references.
+     * 
+     * @param groups list of groups.
+     * @return list of article summaries.
+     * @throws Exception if an error occurs.
+     */
+    public List<HelpArticle> getArticleSummariesByGroups(List<Integer> groups) throws Exception {
+        return loadArticlesByGroups(true, groups);
+    }
+
+    /**
+     * Loads the visible articles linked to at least one of the groups.
+     * 
+     * @param summaries whether to load summaries only.
+     * @param groups    list of groups.
+     * @return list of articles.
+     * @throws Exception if an error occurs.
+     */
+    private List<HelpArticle> loadArticlesByGroups(boolean summaries, List<Integer> groups) throws Exception {
+        return loadArticles(summaries,
+                visibilityCache.getVisibleArticleIds(userService.getCurrentUser().getUuid(), groups));
     }
 
     /**
@@ -473,58 +933,110 @@ public class HelpArticleService {
         final boolean update = group.getId() != -1;
         final User currentUser = userService.getCurrentUser();
 
-        // If updating, delete existing relationships first
-        if (update) {
-            databaseService.executeUpdate("DELETE FROM article_group_articles WHERE group_id = ?", group.getId());
-            databaseService.executeUpdate("DELETE FROM article_group_users WHERE group_id = ?", group.getId());
+        int groupId = databaseService.inTransaction(() -> {
+            // Links stored before this change, empty for a new group
+            Set<String> storedArticles = new HashSet<>();
+            Map<String, Boolean> storedUsers = new HashMap<>();
+            boolean protectionChanged = !update && group.isProtected();
 
-            // Update group
-            databaseService.executeUpdate(
-                    "UPDATE article_groups SET name = ?, is_protected = ? WHERE id = ?",
-                    group.getName(), group.isProtected(), group.getId());
-        } else {
-            // Insert new group
-            String insertSQL = "INSERT INTO article_groups (name, is_protected) VALUES (?, ?)";
-            try (PreparedStatement stmt = databaseService.getConnection().prepareStatement(insertSQL,
-                    Statement.RETURN_GENERATED_KEYS)) {
-                stmt.setString(1, group.getName());
-                stmt.setBoolean(2, group.isProtected());
-                stmt.executeUpdate();
-
-                // Get the generated ID
-                try (ResultSet rs = stmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        group.setId(rs.getInt(1));
+            if (update) {
+                storedArticles.addAll(getGroupArticleIds(group.getId()));
+                databaseService.query("SELECT user_id, is_admin FROM article_group_users WHERE group_id = ?",
+                        rs -> storedUsers.put(rs.getString("user_id"), rs.getBoolean("is_admin")), group.getId());
+                Boolean wasProtected = databaseService.queryForObject(
+                        "SELECT is_protected FROM article_groups WHERE id = ?", rs -> rs.getBoolean("is_protected"),
+                        group.getId());
+                protectionChanged = wasProtected != null && wasProtected != group.isProtected();
+
+                // Update group
+                databaseService.executeUpdate(
+                        "UPDATE article_groups SET name = ?, is_protected = ? WHERE id = ?",
+                        group.getName(), group.isProtected(), group.getId());
+            } else {
+                // Insert new group
+                String insertSQL = "INSERT INTO article_groups (name, is_protected) VALUES (?, ?)";
+                try (Connection conn = databaseService.getConnection();
+                        PreparedStatement stmt = conn.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS)) {
+                    stmt.setString(1, group.getName());
+                    stmt.setBoolean(2, group.isProtected());
+                    stmt.executeUpdate();
+
+                    // Get the generated ID
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            group.setId(rs.getInt(1));
+                        }
                     }
                 }
             }
-        }
 
-        // Insert relationships - articles
-        if (articles != null && !articles.isEmpty()) {
-            for (String articleId : articles) {
-                databaseService.executeUpdate(
-                        "INSERT INTO article_group_articles (group_id, article_id) VALUES (?, ?)",
-                        group.getId(), articleId);
+            // Relationships - articles, only the added and removed links are written
+            Set<String> requestedArticles = articles != null ? new HashSet<>(articles) : new HashSet<>();
+            Set<String> changedArticles = new HashSet<>();
+            List<Object[]> removedArticleRows = new ArrayList<>();
+            for (String articleId : storedArticles) {
+                if (!requestedArticles.contains(articleId)) {
+                    removedArticleRows.add(new Object[] { group.getId(), articleId });
+                    changedArticles.add(articleId);
+                }
             }
-        }
+            List<Object[]> addedArticleRows = new ArrayList<>();
+            for (String articleId : requestedArticles) {
+                if (!storedArticles.contains(articleId)) {
+                    addedArticleRows.add(new Object[] { group.getId(), articleId });
+                    changedArticles.add(articleId);
+                }
+            }
+            databaseService.executeBatch(
+                    "DELETE FROM article_group_articles WHERE group_id = ? AND article_id = ?", removedArticleRows);
+            databaseService.executeBatch(
+                    "INSERT INTO article_group_articles (group_id, article_id) VALUES (?, ?)", addedArticleRows);
 
-        // Insert relationships - users
-        if (users != null && !users.isEmpty()) {
-            for (UserListItem user : users) {
-                databaseService.executeUpdate(
-                        "INSERT INTO article_group_users (group_id, user_id, is_admin) VALUES (?, ?, ?)",
-                        group.getId(), userService.getUserByUsername(user.getUsername()).getUuid(),
-                        user.isAdmin());
+            // Relationships - users, the current user is the admin if no users are specified
+            Map<String, Boolean> requestedUsers = new HashMap<>();
+            if (users != null && !users.isEmpty()) {
+                for (UserListItem user : users) {
+                    requestedUsers.put(userService.getUserByUsername(user.getUsername()).getUuid(), user.isAdmin());
+                }
+            } else {
+                requestedUsers.put(currentUser.getUuid(), true);
             }
-        } else {
-            // If there are no users specified, add current user as admin
-            databaseService.executeUpdate(
-                    "INSERT INTO article_group_users (group_id, user_id, is_admin) VALUES (?, ?, true)",
-                    group.getId(), currentUser.getUuid());
-        }
+            List<Object[]> removedUserRows = new ArrayList<>();
+            for (String userId : storedUsers.keySet()) {
+                if (!requestedUsers.containsKey(userId)) {
+                    removedUserRows.add(new Object[] { group.getId(), userId });
+                }
+            }
+            List<Object[]> addedUserRows = new ArrayList<>();
+            List<Object[]> adminRows = new ArrayList<>();
+            for (Map.Entry<String, Boolean> user : requestedUsers.entrySet()) {
+                Boolean storedAdmin = storedUsers.get(user.getKey());
+                if (storedAdmin == null) {
+                    addedUserRows.add(new Object[] { group.getId(), user.getKey(), user.getValue() });
+                } else if (!storedAdmin.equals(user.getValue())) {
+                    adminRows.add(new Object[] { user.getValue(), group.getId(), user.getKey() });
+                }
+            }
+            databaseService.executeBatch("DELETE FROM article_group_users WHERE group_id = ? AND user_id = ?",
+                    removedUserRows);
+            databaseService.executeBatch(
+                    "INSERT INTO article_group_users (group_id, user_id, is_admin) VALUES (?, ?, ?)", addedUserRows);
+            databaseService.executeBatch(
+                    "UPDATE article_group_users SET is_admin = ? WHERE group_id = ? AND user_id = ?", adminRows);
 
-        return group.getId();
+            // Membership and protection decide who sees every article of the group,
+            // otherwise only the relinked articles need their visibility recomputed
+            boolean membersChanged = !removedUserRows.isEmpty() || !addedUserRows.isEmpty();
+            if (protectionChanged || (group.isProtected() && membersChanged)) {
+                changedArticles.addAll(storedArticles);
+                changedArticles.addAll(requestedArticles);
+            }
+            refreshVisibleArticles(changedArticles);
+            return group.getId();
+        });
+        visibilityCache.invalidate();
+        groupCache.invalidate();
+        return groupId;
     }
 
     /**
@@ -534,66 +1046,279 @@ public class HelpArticleService {
      * @throws SQLException if an error occurs.
      */
     public void deleteGroup(int groupId) throws SQLException {
-        databaseService.executeUpdate("DELETE FROM article_groups WHERE id = ?", groupId);
-        databaseService.executeUpdate("DELETE FROM article_group_articles WHERE group_id = ?", groupId);
-        databaseService.executeUpdate("DELETE FROM article_group_users WHERE group_id = ?", groupId);
+        databaseService.runInTransaction(() -> {
+            List<String> affectedArticles = getGroupArticleIds(groupId);
+            databaseService.executeUpdate("DELETE FROM article_groups WHERE id = ?", groupId);
+            databaseService.executeUpdate("DELETE FROM article_group_articles WHERE group_id = ?", groupId);
+            databaseService.executeUpdate("DELETE FROM article_group_users WHERE group_id = ?", groupId);
+            refreshVisibleArticles(affectedArticles);
+        });
+        visibilityCache.invalidate();
+        groupCache.invalidate();
     }
 
     /**
-     * Encrypts an array of characters.
+     * Gets the UUIDs of the articles linked to a group.
      * 
-     * @param data character array to encrypt.
-     * @param iv   initialization vector.
-     * @return encrypted data as base64 string.
-     * @throws Exception if encryption error occurs.
+     * @param groupId the ID of the group.
+     * @return the article UUIDs.
+     * @throws SQLException if a database error occurs.
+     */
+    private List<String> getGroupArticleIds(int groupId) throws SQLException {
+        return databaseService.queryForList("SELECT article_id FROM article_group_articles WHERE group_id = ?",
+                rs -> rs.getString("article_id"), groupId);
+    }
+
+    /**
+     * Recomputes the user_visible_articles rows of articles after their group
+     * links, their groups' protection or their groups' members changed. Runs
+     * in the caller's transaction.
+     * 
+     * @param articleIds the UUIDs of the articles.
+     * @throws SQLException if a database error occurs.
      */
-    private String encryptField(char[] data, byte[] iv) throws Exception {
-        return Base64.getEncoder().encodeToString(
-                encryptionService.encrypt(EncryptionUtils.toByteArray(data), iv));
+    private void refreshVisibleArticles(Collection<String> articleIds) throws SQLException {
+        if (articleIds.isEmpty()) {
+            return;
+        }
+        String[] ids = articleIds.toArray(new String[0]);
+        databaseService.executeUpdate("DELETE FROM user_visible_articles WHERE article_id = ANY(?)", (Object) ids);
+        databaseService.executeUpdate(INSERT_VISIBLE_ARTICLES_SQL, ids, ids);
     }
 
     /**
-     * Encrypts a string.
+     * Encrypts a serialized article record and clears the plain record.
      * 
-     * @param data string to encrypt.
-     * @param iv   initialization vector.
-     * @return encrypted data as base64 string.
+     * @param record the record to encrypt.
+     * @param iv     initialization vector.
+     * @return encrypted record, with the default cipher.
      * @throws Exception if encryption error occurs.
      */
-    private String encryptField(String data, byte[] iv) throws Exception {
-        return Base64.getEncoder().encodeToString(
-                encryptionService.encrypt(data.getBytes(), iv));
+    private byte[] encryptRecord(byte[] record, byte[] iv) throws Exception {
+        try {
+            return encryptionService.encrypt(record, iv);
+        } finally {
+            Arrays.fill(record, (byte) 0);
+        }
+    }
+
+    /**
+     * Decrypts an article record into the record buffer of the current
+     * thread, so loading many articles does not allocate a plain text array
+     * per record. The buffer must be cleared with clearRecordBuffer before the
+     * next record is decrypted on the same thread.
+     * 
+     * @param cipher    the cipher the record was encrypted with.
+     * @param encrypted encrypted record.
+     * @param iv        initialization vector.
+     * @return the buffer, holding the serialized record between position and
+     *         limit.
+     * @throws Exception if decryption error occurs.
+     */
+    private ByteBuffer decryptRecord(String cipher, byte[] encrypted, byte[] iv) throws Exception {
+        ByteBuffer buffer = RECORD_BUFFER.get();
+        if (buffer.capacity() < encrypted.length) {
+            buffer = ByteBuffer.allocate(Integer.highestOneBit(encrypted.length) << 1);
+            if (buffer.capacity() <= MAX_RETAINED_RECORD_BUFFER) {
+                RECORD_BUFFER.set(buffer);
+            }
+        }
+        buffer.clear();
+        encryptionService.decrypt(cipher, ByteBuffer.wrap(encrypted), buffer, iv);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Overwrites the plain text left in a record buffer.
+     * 
+     * @param buffer the buffer returned by decryptRecord.
+     */
+    private static void clearRecordBuffer(ByteBuffer buffer) {
+        Arrays.fill(buffer.array(), 0, buffer.limit(), (byte) 0);
+    }
+
+    /**
+     * Gets the cipher of encrypted article data. Rows and backups from before
+     * the cipher was stored were encrypted with AES/CBC.
+     * 
+     * @param encryptedArticle encrypted article data.
+     * @return the algorithm name.
+     */
+    private static String getCipher(Map<String, Object> encryptedArticle) {
+        Object cipher = encryptedArticle.get("cipher");
+        return cipher != null ? (String) cipher : AesCbcCipherSuite.ALGORITHM;
+    }
+
+    /**
+     * Gets a binary value of encrypted article data. Backups taken before the
+     * columns were binary hold base64 strings.
+     * 
+     * @param encryptedArticle encrypted article data.
+     * @param key              the column name.
+     * @return the bytes, or null if the value is not set.
+     */
+    private static byte[] getBytes(Map<String, Object> encryptedArticle, String key) {
+        Object value = encryptedArticle.get(key);
+        if (value instanceof String) {
+            return Base64.getDecoder().decode((String) value);
+        }
+        return (byte[]) value;
     }
 
     /**
      * Decrypts an article.
      * 
-     * @param rs article data.
+     * @param encryptedArticle encrypted article data, as read by
+     *                         ENCRYPTED_ARTICLE_MAPPER.
      * @return decrypted Article.
      * @throws Exception if decryption error occurs.
      */
-    private HelpArticle decryptArticle(ResultSet rs) throws Exception {
-        // Get the IV
-        String encodedIV = rs.getString("iv");
-        byte[] iv = Base64.getDecoder().decode(encodedIV);
+    private HelpArticle decryptArticle(Map<String, Object> encryptedArticle) throws Exception {
+        // A new IV is generated on every write, so a cached copy with the same IV is current
+        String uuid = (String) encryptedArticle.get("uuid");
+        byte[] iv = getBytes(encryptedArticle, "iv");
+        HelpArticle cached = articleCache.get(uuid, iv);
+        if (cached != null) {
+            return cached;
+        }
+
+        HelpArticle article;
+        if (encryptedArticle.get("summary_record") != null) {
+            article = decodeSummaryRecord(uuid, getCipher(encryptedArticle),
+                    getBytes(encryptedArticle, "summary_record"), iv);
+            ByteBuffer content = decryptRecord(getCipher(encryptedArticle),
+                    getBytes(encryptedArticle, "content_record"), iv);
+            try {
+                ArticleRecordCodec.decodeContent(content, article);
+            } finally {
+                clearRecordBuffer(content);
+            }
+        } else {
+            article = decryptLegacyArticle(encryptedArticle, iv, true);
+        }
+
+        articleCache.put(iv, article);
+        return article;
+    }
+
+    /**
+     * Decrypts the summary fields of an article. Keywords, body and references
+     * are left null.
+     * 
+     * @param encryptedArticle encrypted article data, as read by
+     *                         ENCRYPTED_SUMMARY_MAPPER.
+     * @return decrypted article summary.
+     * @throws Exception if decryption error occurs.
+     */
+    private HelpArticle decryptArticleSummary(Map<String, Object> encryptedArticle) throws Exception {
+        String uuid = (String) encryptedArticle.get("uuid");
+        byte[] iv = getBytes(encryptedArticle, "iv");
+        HelpArticle cached = articleCache.get(uuid, iv, false);
+        if (cached != null) {
+            return cached;
+        }
+
+        HelpArticle article = encryptedArticle.get("summary_record") != null
+                ? decodeSummaryRecord(uuid, getCipher(encryptedArticle), getBytes(encryptedArticle, "summary_record"),
+                        iv)
+                : decryptLegacyArticle(encryptedArticle, iv, false);
+
+        articleCache.put(iv, article);
+        return article;
+    }
+
+    /**
+     * Decrypts and reads a summary record.
+     * 
+     * @param uuid          the UUID of the article.
+     * @param cipher        the cipher the record was encrypted with.
+     * @param summaryRecord the encrypted summary record.
+     * @param iv            initialization vector.
+     * @return the article summary.
+     * @throws Exception if decryption error occurs.
+     */
+    private HelpArticle decodeSummaryRecord(String uuid, String cipher, byte[] summaryRecord, byte[] iv)
+            throws Exception {
+        ByteBuffer summary = decryptRecord(cipher, summaryRecord, iv);
+        try {
+            return ArticleRecordCodec.decodeSummary(uuid, summary);
+        } finally {
+            clearRecordBuffer(summary);
+        }
+    }
 
-        // Decrypt article fields
-        String uuid = rs.getString("uuid");
-        char[] title = decryptField(rs.getString("title"), iv);
-        char[][] authors = stringToCharArrays(decryptFieldToString(rs.getString("authors"), iv));
-        char[] abstractText = decryptField(rs.getString("abstract"), iv);
-        char[][] keywords = stringToCharArrays(decryptFieldToString(rs.getString("keywords"), iv));
-        char[] body = decryptField(rs.getString("body"), iv);
-        char[][] references = stringToCharArrays(decryptFieldToString(rs.getString("references"), iv));
-        Topic level = Topic.valueOf(decryptFieldToString(rs.getString("level"), iv));
+    /**
+     * Decrypts an article stored with one encrypted column per field.
+     * 
+     * @param encryptedArticle encrypted article data.
+     * @param iv               initialization vector.
+     * @param withContent      whether to decrypt keywords, body and references.
+     * @return decrypted article.
+     * @throws Exception if decryption error occurs.
+     */
+    private HelpArticle decryptLegacyArticle(Map<String, Object> encryptedArticle, byte[] iv, boolean withContent)
+            throws Exception {
+        char[] title = decryptField((String) encryptedArticle.get("title"), iv);
+        char[][] authors = stringToCharArrays(decryptFieldToString((String) encryptedArticle.get("authors"), iv));
+        char[] abstractText = decryptField((String) encryptedArticle.get("abstract"), iv);
+        Topic level = Topic.valueOf(decryptFieldToString((String) encryptedArticle.get("level"), iv));
 
-        // Return decrypted article
-        return new HelpArticle(uuid, title, authors, abstractText, keywords, body, references, new ArrayList<>(),
-                level);
+        HelpArticle article = new HelpArticle((String) encryptedArticle.get("uuid"), title, authors, abstractText,
+                null, null, null, new ArrayList<>(), level);
+        if (withContent) {
+            article.setKeywords(
+                    stringToCharArrays(decryptFieldToString((String) encryptedArticle.get("keywords"), iv)));
+            article.setBody(decryptField((String) encryptedArticle.get("body"), iv));
+            article.setReferences(
+                    stringToCharArrays(decryptFieldToString((String) encryptedArticle.get("references"), iv)));
+        }
+        return article;
     }
 
     /**
-     * Decrypts a base64 string into an array of characters.
+     * Rewrites articles stored with one encrypted column per field as summary
+     * and content records.
+     * 
+     * @return the number of upgraded articles.
+     * @throws Exception if decryption, encryption or database error occurs.
+     */
+    public int upgradeLegacyArticles() throws Exception {
+        List<Map<String, Object>> legacyArticles = databaseService.queryForList(
+                "SELECT * FROM articles WHERE summary_record IS NULL", ENCRYPTED_ARTICLE_MAPPER);
+        if (legacyArticles.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> rows = new ArrayList<>(legacyArticles.size());
+        for (Map<String, Object> encryptedArticle : legacyArticles) {
+            HelpArticle article;
+            try {
+                article = decryptLegacyArticle(encryptedArticle, getBytes(encryptedArticle, "iv"), true);
+            } catch (Exception e) {
+                // Leave unreadable rows as they are rather than failing startup
+                System.err.println("Error decrypting article " + encryptedArticle.get("uuid") + ": " + e.getMessage());
+                continue;
+            }
+            byte[] iv = EncryptionUtils.getInitializationVector(UUID.randomUUID().toString().toCharArray());
+            rows.add(new Object[] {
+                    encryptRecord(ArticleRecordCodec.encodeSummary(article), iv),
+                    encryptRecord(ArticleRecordCodec.encodeContent(article), iv),
+                    iv,
+                    encryptionService.getDefaultAlgorithm(),
+                    article.getUuid() });
+        }
+
+        databaseService.executeBatch(UPDATE_ARTICLE_RECORDS_SQL, rows);
+        if (!rows.isEmpty()) {
+            System.out.println("INFO: Upgraded " + rows.size() + " articles to encrypted records");
+        }
+        return rows.size();
+    }
+
+    /**
+     * Decrypts a base64 legacy field into an array of characters. Legacy fields
+     * were always encrypted with AES/CBC.
      * 
      * @param encrypted encrypted string.
      * @param iv        initialization vector.
@@ -602,11 +1327,11 @@ public class HelpArticleService {
      */
     private char[] decryptField(String encrypted, byte[] iv) throws Exception {
         return EncryptionUtils.toCharArray(
-                encryptionService.decrypt(Base64.getDecoder().decode(encrypted), iv));
+                encryptionService.decrypt(AesCbcCipherSuite.ALGORITHM, Base64.getDecoder().decode(encrypted), iv));
     }
 
     /**
-     * Decrypts a base64 string into a string.
+     * Decrypts a base64 legacy field into a string.
      * 
      * @param encrypted encrypted string.
      * @param iv        initialization vector.
@@ -615,21 +1340,7 @@ public class HelpArticleService {
      */
     private String decryptFieldToString(String encrypted, byte[] iv) throws Exception {
         return new String(
-                encryptionService.decrypt(Base64.getDecoder().decode(encrypted), iv));
-    }
-
-    /**
-     * Converts a 2D char array to a string.
-     * 
-     * @param charArrays the 2D character array.
-     * @return the string.
-     */
-    private String charArraysToString(char[][] charArrays) {
-        StringBuilder sb = new StringBuilder();
-        for (char[] array : charArrays) {
-            sb.append(array).append("\n");
-        }
-        return sb.toString();
+                encryptionService.decrypt(AesCbcCipherSuite.ALGORITHM, Base64.getDecoder().decode(encrypted), iv));
     }
 
     /**
@@ -658,6 +1369,11 @@ public class HelpArticleService {
             databaseService.executeUpdate("DELETE FROM article_groups");
             databaseService.executeUpdate("DELETE FROM article_group_articles");
             databaseService.executeUpdate("DELETE FROM article_group_users");
+            databaseService.executeUpdate("DELETE FROM user_visible_articles");
+            articleCache.clear();
+            visibilityCache.invalidate();
+            groupCache.invalidate();
+            resetSearchIndex();
             return true;
         } catch (SQLException e) {
             return false;
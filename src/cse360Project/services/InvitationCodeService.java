@@ -1,6 +1,5 @@
 package cse360Project.services;
 
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -56,28 +55,26 @@ public class InvitationCodeService {
             String invitationSql = """
                         SELECT * FROM invitation_codes WHERE code = ?
                     """;
-            final ResultSet resultSet = databaseService.executeQuery(invitationSql, code);
+            final InvitationCode invitationCode = databaseService.queryForObject(invitationSql,
+                    resultSet -> new InvitationCode(resultSet.getString("uuid"), resultSet.getString("code"),
+                            new ArrayList<>()),
+                    code);
 
-            if (resultSet.next()) {
-                final List<Role> roles = getInvitationCodeRoles(resultSet.getString("uuid"));
-                return new InvitationCode(resultSet.getString("uuid"), resultSet.getString("code"), roles);
+            if (invitationCode != null) {
+                invitationCode.getRoles().addAll(getInvitationCodeRoles(invitationCode.getUuid()));
             }
+            return invitationCode;
         } catch (SQLException e) {
             return null;
         }
-        return null;
     }
 
     private List<Role> getInvitationCodeRoles(String uuid) throws SQLException {
         String invitationCodeRolesSql = """
                     SELECT role FROM invitation_code_roles WHERE invitation_code_id = ?
                 """;
-        final ResultSet resultSet = databaseService.executeQuery(invitationCodeRolesSql, uuid);
-        final List<Role> roles = new ArrayList<>();
-        while (resultSet.next()) {
-            roles.add(Role.valueOf(resultSet.getString("role")));
-        }
-        return roles;
+        return databaseService.queryForList(invitationCodeRolesSql,
+                resultSet -> Role.valueOf(resultSet.getString("role")), uuid);
     }
 
     /**
@@ -94,10 +91,12 @@ public class InvitationCodeService {
                     VALUES (?, ?, ?)
                 """;
 
-        databaseService.executeUpdate(invitationSql, invitation.getUuid(), invitation.getCode(),
-                invitation.isUsed());
+        databaseService.runInTransaction(() -> {
+            databaseService.executeUpdate(invitationSql, invitation.getUuid(), invitation.getCode(),
+                    invitation.isUsed());
 
-        insertInvitationCodeRoles(invitation);
+            insertInvitationCodeRoles(invitation);
+        });
 
     }
 
@@ -108,24 +107,15 @@ public class InvitationCodeService {
      * @throws SQLException if a database access error occurs
      */
     private void insertInvitationCodeRoles(InvitationCode invitation) throws SQLException {
-        for (Role role : invitation.getRoles()) {
-            insertInvitationCodeRole(invitation, role);
-        }
-    }
-
-    /**
-     * Inserts an invitation code role into the database.
-     * 
-     * @param invitation The invitation code.
-     * @param role       The role to insert.
-     * @throws SQLException if a database access error occurs
-     */
-    private void insertInvitationCodeRole(InvitationCode invitation, Role role) throws SQLException {
         String invitationCodeRolesSql = """
                     INSERT INTO invitation_code_roles (invitation_code_id, role)
                     VALUES (?, ?)
                 """;
-        databaseService.executeUpdate(invitationCodeRolesSql, invitation.getUuid(), role.name());
+        List<Object[]> rows = new ArrayList<>();
+        for (Role role : invitation.getRoles()) {
+            rows.add(new Object[] { invitation.getUuid(), role.name() });
+        }
+        databaseService.executeBatch(invitationCodeRolesSql, rows);
     }
 
     /**
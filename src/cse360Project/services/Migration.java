@@ -0,0 +1,33 @@
+package cse360Project.services;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/*******
+ * <p>
+ * Migration Interface
+ * </p>
+ * 
+ * <p>
+ * Description: A single versioned change to the database schema or data,
+ * applied once by MigrationRunner.
+ * </p>
+ * 
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ */
+@FunctionalInterface
+public interface Migration {
+
+    /**
+     * Applies the migration.
+     * 
+     * @param connection the connection to apply the migration on, with
+     *                   auto-commit disabled.
+     * @throws SQLException if the migration fails.
+     */
+    void apply(Connection connection) throws SQLException;
+}
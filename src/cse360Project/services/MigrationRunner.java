@@ -0,0 +1,131 @@
+package cse360Project.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/*******
+ * <p>
+ * MigrationRunner Class
+ * </p>
+ * 
+ * <p>
+ * Description: Applies versioned migrations in order and records each
+ * applied version in the schema_version table, so every migration runs
+ * exactly once per database.
+ * </p>
+ * 
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class MigrationRunner {
+    private final Map<Integer, String> descriptions = new TreeMap<>();
+    private final Map<Integer, Migration> migrations = new TreeMap<>();
+
+    /**
+     * Registers a migration.
+     * 
+     * @param version     the version of the migration, applied in ascending
+     *                    order.
+     * @param description a short description of the migration.
+     * @param migration   the migration.
+     * @return this runner.
+     */
+    public MigrationRunner add(int version, String description, Migration migration) {
+        if (migrations.containsKey(version)) {
+            throw new IllegalArgumentException("Duplicate migration version: " + version);
+        }
+        descriptions.put(version, description);
+        migrations.put(version, migration);
+        return this;
+    }
+
+    /**
+     * Registers a migration made of SQL statements.
+     * 
+     * @param version     the version of the migration, applied in ascending
+     *                    order.
+     * @param description a short description of the migration.
+     * @param statements  the SQL statements to execute.
+     * @return this runner.
+     */
+    public MigrationRunner add(int version, String description, String... statements) {
+        return add(version, description, connection -> {
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : statements) {
+                    statement.execute(sql);
+                }
+            }
+        });
+    }
+
+    /**
+     * Applies all migrations that have not been applied yet.
+     * 
+     * @param connection the connection to migrate.
+     * @return the number of migrations applied.
+     * @throws SQLException if a migration fails. Migrations applied before
+     *                      the failing one stay applied.
+     */
+    public int migrate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_version (
+                        version INT PRIMARY KEY,
+                        description VARCHAR(255) NOT NULL,
+                        applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """);
+        }
+
+        Set<Integer> applied = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                applied.add(rs.getInt("version"));
+            }
+        }
+
+        int count = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (Map.Entry<Integer, Migration> entry : migrations.entrySet()) {
+                int version = entry.getKey();
+                if (applied.contains(version)) {
+                    continue;
+                }
+
+                String description = descriptions.get(version);
+                try {
+                    entry.getValue().apply(connection);
+                    try (PreparedStatement stmt = connection.prepareStatement(
+                            "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                        stmt.setInt(1, version);
+                        stmt.setString(2, description);
+                        stmt.executeUpdate();
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw new SQLException("Migration " + version + " (" + description + ") failed", e);
+                }
+
+                System.out.println("INFO: Applied database migration " + version + ": " + description);
+                count++;
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return count;
+    }
+}
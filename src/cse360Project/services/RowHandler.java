@@ -0,0 +1,33 @@
+package cse360Project.services;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/*******
+ * <p>
+ * RowHandler Interface
+ * </p>
+ * 
+ * <p>
+ * Description: Processes the rows of a query one at a time while the cursor
+ * is open, so large results do not have to be collected into a list.
+ * </p>
+ * 
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ */
+@FunctionalInterface
+public interface RowHandler {
+
+    /**
+     * Processes the current row. Implementations must not call next() on the
+     * result set.
+     * 
+     * @param rs the result set positioned at the row to process.
+     * @throws SQLException if a database access error occurs.
+     */
+    void processRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,37 @@
+package cse360Project.services;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/*******
+ * <p>
+ * RowMapper Interface
+ * </p>
+ * 
+ * <p>
+ * Description: Maps the current row of a result set to an object. Used with
+ * the query functions of DatabaseService, which own the connection and close
+ * it once all rows are mapped.
+ * </p>
+ * 
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ * 
+ * @param <T> the type of the mapped object.
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Maps the current row. Implementations must not call next() on the result
+     * set.
+     * 
+     * @param rs the result set positioned at the row to map.
+     * @return the mapped object.
+     * @throws SQLException if a database access error occurs.
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,33 @@
+package cse360Project.services;
+
+/*******
+ * <p>
+ * TransactionCallback Interface
+ * </p>
+ * 
+ * <p>
+ * Description: Work that DatabaseService runs inside a single transaction.
+ * All statements executed through DatabaseService on the calling thread while
+ * the callback runs share the transaction's connection.
+ * </p>
+ * 
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ * 
+ * @param <T> the type of the result.
+ * @param <E> the type of exception thrown by the work.
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ */
+@FunctionalInterface
+public interface TransactionCallback<T, E extends Exception> {
+
+    /**
+     * Executes the work of the transaction.
+     * 
+     * @return the result of the work.
+     * @throws E if the work fails, which rolls the transaction back.
+     */
+    T execute() throws E;
+}
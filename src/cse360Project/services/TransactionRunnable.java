@@ -0,0 +1,30 @@
+package cse360Project.services;
+
+/*******
+ * <p>
+ * TransactionRunnable Interface
+ * </p>
+ * 
+ * <p>
+ * Description: Work without a result that DatabaseService runs inside a
+ * single transaction.
+ * </p>
+ * 
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ * 
+ * @param <E> the type of exception thrown by the work.
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ */
+@FunctionalInterface
+public interface TransactionRunnable<E extends Exception> {
+
+    /**
+     * Executes the work of the transaction.
+     * 
+     * @throws E if the work fails, which rolls the transaction back.
+     */
+    void run() throws E;
+}
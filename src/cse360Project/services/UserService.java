@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import cse360Project.models.Role;
 import cse360Project.models.Topic;
@@ -12,7 +13,6 @@ import cse360Project.models.User;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
@@ -43,6 +43,8 @@ public class UserService {
     private User currentUser;
     private Role currentRole;
     private String currentInvitationCode;
+    // Notified after users leave the database, taking their group memberships with them
+    private final List<Runnable> membershipListeners = new CopyOnWriteArrayList<>();
 
     /**
      * Private constructor to initialize the service and load users from local file.
@@ -72,6 +74,25 @@ public class UserService {
         return instance;
     }
 
+    /**
+     * Registers a listener that is run after users are deleted, so caches of
+     * group membership can be dropped.
+     * 
+     * @param listener the listener.
+     */
+    public void addMembershipListener(Runnable listener) {
+        membershipListeners.add(listener);
+    }
+
+    /**
+     * Runs the membership listeners.
+     */
+    private void notifyMembershipChanged() {
+        for (Runnable listener : membershipListeners) {
+            listener.run();
+        }
+    }
+
     /**
      * Inserts a user into the database.
      * 
@@ -86,13 +107,15 @@ public class UserService {
                     VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 """;
 
-        databaseService.executeUpdate(userSql, user.getUuid(), user.getUsername(), user.getPassword(),
-                user.getEmail(),
-                user.getFirstName(), user.getMiddleName(), user.getLastName(), user.getPreferredName(),
-                user.getHasOneTimePassword(), user.getOneTimePasswordExpires());
+        databaseService.runInTransaction(() -> {
+            databaseService.executeUpdate(userSql, user.getUuid(), user.getUsername(), user.getPassword(),
+                    user.getEmail(),
+                    user.getFirstName(), user.getMiddleName(), user.getLastName(), user.getPreferredName(),
+                    user.getHasOneTimePassword(), user.getOneTimePasswordExpires());
 
-        insertRoles(user);
-        insertTopics(user);
+            insertRoles(user);
+            insertTopics(user);
+        });
     }
 
     /**
@@ -102,9 +125,15 @@ public class UserService {
      * @throws SQLException if an error occurs while inserting the roles.
      */
     private void insertRoles(User user) throws SQLException {
+        String rolesSql = """
+                    INSERT INTO user_roles (user_id, role)
+                    VALUES (?, ?)
+                """;
+        List<Object[]> rows = new ArrayList<>();
         for (Role role : user.getRoles()) {
-            insertUserRole(user, role);
+            rows.add(new Object[] { user.getUuid(), role.name() });
         }
+        databaseService.executeBatch(rolesSql, rows);
     }
 
     /**
@@ -114,39 +143,15 @@ public class UserService {
      * @throws SQLException if an error occurs while inserting the topics.
      */
     private void insertTopics(User user) throws SQLException {
-        for (Topic topic : user.getTopics()) {
-            insertUserTopic(user, topic);
-        }
-    }
-
-    /**
-     * Inserts a role for a user into the database.
-     * 
-     * @param user The user to insert the role for.
-     * @param role The role to insert.
-     * @throws SQLException if an error occurs while inserting the role.
-     */
-    private void insertUserRole(User user, Role role) throws SQLException {
-        String rolesSql = """
-                    INSERT INTO user_roles (user_id, role)
-                    VALUES (?, ?)
-                """;
-        databaseService.executeUpdate(rolesSql, user.getUuid(), role.name());
-    }
-
-    /**
-     * Inserts a topic for a user into the database.
-     * 
-     * @param user  The user to insert the topic for.
-     * @param topic The topic to insert.
-     * @throws SQLException if an error occurs while inserting the topic.
-     */
-    private void insertUserTopic(User user, Topic topic) throws SQLException {
         String topicsSql = """
                     INSERT INTO user_topics (user_id, topic)
                     VALUES (?, ?)
                 """;
-        databaseService.executeUpdate(topicsSql, user.getUuid(), topic.name());
+        List<Object[]> rows = new ArrayList<>();
+        for (Topic topic : user.getTopics()) {
+            rows.add(new Object[] { user.getUuid(), topic.name() });
+        }
+        databaseService.executeBatch(topicsSql, rows);
     }
 
     /**
@@ -169,15 +174,17 @@ public class UserService {
                     WHERE uuid = ?
                 """;
 
-        databaseService.executeUpdate(userSql, user.getEmail(), user.getPassword(), user.getFirstName(),
-                user.getMiddleName(), user.getLastName(), user.getPreferredName(), user.getHasOneTimePassword(),
-                user.getOneTimePasswordExpires(), user.getUuid());
+        databaseService.runInTransaction(() -> {
+            databaseService.executeUpdate(userSql, user.getEmail(), user.getPassword(), user.getFirstName(),
+                    user.getMiddleName(), user.getLastName(), user.getPreferredName(), user.getHasOneTimePassword(),
+                    user.getOneTimePasswordExpires(), user.getUuid());
 
-        // delete roles and topics, re-insert one by one
-        deleteUserRoles(user);
-        deleteUserTopics(user);
-        insertRoles(user);
-        insertTopics(user);
+            // delete roles and topics, then batch-insert them
+            deleteUserRoles(user);
+            deleteUserTopics(user);
+            insertRoles(user);
+            insertTopics(user);
+        });
     }
 
     /**
@@ -211,9 +218,7 @@ public class UserService {
         users.clear();
 
         String sql = "SELECT * FROM users";
-        ResultSet rs = databaseService.executeQuery(sql);
-
-        while (rs.next()) {
+        List<User> loadedUsers = databaseService.queryForList(sql, rs -> {
             String uuid = rs.getString("uuid");
             String username = rs.getString("username");
             byte[] password = rs.getBytes("password");
@@ -230,14 +235,17 @@ public class UserService {
             if (expires != null) {
                 user.setOneTimePasswordExpires(expires.toLocalDateTime());
             }
+            return user;
+        });
 
+        for (User user : loadedUsers) {
             // Load roles
             final List<Role> roles = loadUserRoles(user);
             user.setRoles(roles);
             // Load topics
             loadUserTopics(user);
 
-            users.put(uuid, user);
+            users.put(user.getUuid(), user);
         }
     }
 
@@ -249,12 +257,7 @@ public class UserService {
      */
     public List<Role> loadUserRoles(User user) throws SQLException {
         String sql = "SELECT role FROM user_roles WHERE user_id = ?";
-        ResultSet rs = databaseService.executeQuery(sql, user.getUuid());
-        List<Role> roles = new ArrayList<>();
-        while (rs.next()) {
-            roles.add(Role.valueOf(rs.getString("role")));
-        }
-        return roles;
+        return databaseService.queryForList(sql, rs -> Role.valueOf(rs.getString("role")), user.getUuid());
     }
 
     /**
@@ -265,10 +268,8 @@ public class UserService {
      */
     private void loadUserTopics(User user) throws SQLException {
         String sql = "SELECT topic FROM user_topics WHERE user_id = ?";
-        ResultSet rs = databaseService.executeQuery(sql, user.getUuid());
-        while (rs.next()) {
-            user.getTopics().add(Topic.valueOf(rs.getString("topic")));
-        }
+        user.getTopics().addAll(
+                databaseService.queryForList(sql, rs -> Topic.valueOf(rs.getString("topic")), user.getUuid()));
     }
 
     /**
@@ -279,7 +280,12 @@ public class UserService {
      */
     private void deleteUserFromDB(String uuid) throws SQLException {
         String sql = "DELETE FROM users WHERE uuid = ?";
-        databaseService.executeUpdate(sql, uuid);
+        databaseService.runInTransaction(() -> {
+            databaseService.executeUpdate(sql, uuid);
+            // Group memberships cascade, the articles they made visible go with them
+            databaseService.executeUpdate("DELETE FROM user_visible_articles WHERE user_id = ?", uuid);
+        });
+        notifyMembershipChanged();
     }
 
     /**
@@ -706,6 +712,9 @@ public class UserService {
         users.clear();
         try {
             databaseService.executeUpdate("DELETE FROM users");
+            // '*' rows belong to no user, they list the articles in unprotected groups
+            databaseService.executeUpdate("DELETE FROM user_visible_articles WHERE user_id <> '*'");
+            notifyMembershipChanged();
             return true;
         } catch (SQLException e) {
             return false;
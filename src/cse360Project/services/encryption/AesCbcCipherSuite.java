@@ -0,0 +1,95 @@
+package cse360Project.services.encryption;
+
+import java.nio.ByteBuffer;
+import java.security.Security;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+/*******
+ * <p> AesCbcCipherSuite. </p>
+ * 
+ * <p> Description: AES/CBC/PKCS5Padding from BouncyCastle, the cipher all data
+ * was written with before phase four. Kept to decrypt those rows. </p>
+ * 
+ * <p> Copyright: CSE 360 Team Th02 © 2024 </p>
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ * 
+ */
+public class AesCbcCipherSuite implements CipherSuite {
+
+	public static final String ALGORITHM = "AES-CBC";
+	
+	private static String BOUNCY_CASTLE_PROVIDER_IDENTIFIER = "BC";
+	private static String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+	
+	static {
+		if (Security.getProvider(BOUNCY_CASTLE_PROVIDER_IDENTIFIER) == null) {
+			Security.addProvider(new BouncyCastleProvider());
+		}
+	}
+	
+	private final ThreadLocal<Cipher> cipher = new ThreadLocal<>();
+	private final SecretKey key;
+	
+	/**
+     * Creates the cipher suite.
+     * 
+     * @param key the AES key.
+     */
+	public AesCbcCipherSuite(SecretKey key) {
+		this.key = key;
+	}
+	
+	@Override
+	public String getAlgorithm() {
+		return ALGORITHM;
+	}
+	
+	@Override
+	public byte[] encrypt(byte[] plainText, byte[] initializationVector) throws Exception {
+		Cipher cipher = getCipher();
+		cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(initializationVector));
+		return cipher.doFinal(plainText);
+	}
+	
+	@Override
+	public byte[] decrypt(byte[] cipherText, byte[] initializationVector) throws Exception {
+		Cipher cipher = getCipher();
+		cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(initializationVector));
+		return cipher.doFinal(cipherText);
+	}
+	
+	@Override
+	public int encrypt(ByteBuffer plainText, ByteBuffer cipherText, byte[] initializationVector) throws Exception {
+		Cipher cipher = getCipher();
+		cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(initializationVector));
+		return cipher.doFinal(plainText, cipherText);
+	}
+	
+	@Override
+	public int decrypt(ByteBuffer cipherText, ByteBuffer plainText, byte[] initializationVector) throws Exception {
+		Cipher cipher = getCipher();
+		cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(initializationVector));
+		return cipher.doFinal(cipherText, plainText);
+	}
+	
+	/**
+     * Gets the cipher of the current thread, creating it on first use.
+     * 
+     * @return the cipher.
+     * @throws Exception if there is a cipher error.
+     */
+	private Cipher getCipher() throws Exception {
+		Cipher threadCipher = cipher.get();
+		if (threadCipher == null) {
+			threadCipher = Cipher.getInstance(TRANSFORMATION, BOUNCY_CASTLE_PROVIDER_IDENTIFIER);
+			cipher.set(threadCipher);
+		}
+		return threadCipher;
+	}
+}
@@ -0,0 +1,120 @@
+package cse360Project.services.encryption;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+
+/*******
+ * <p> AesGcmCipherSuite. </p>
+ * 
+ * <p> Description: AES/GCM/NoPadding from the JDK provider, which uses the
+ * AES-NI and carry-less multiply intrinsics where the CPU has them. A record
+ * IV may be shared by several encrypted values, and GCM must never reuse a
+ * nonce, so every encryption gets a random nonce that is stored in front of
+ * the cipher text. The record IV is authenticated as associated data. </p>
+ * 
+ * <p> Copyright: CSE 360 Team Th02 © 2024 </p>
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ * 
+ */
+public class AesGcmCipherSuite implements CipherSuite {
+
+	public static final String ALGORITHM = "AES-GCM";
+	
+	private static String TRANSFORMATION = "AES/GCM/NoPadding";
+	private static int NONCE_SIZE = 12;
+	private static int TAG_BITS = 128;
+	
+	private static final SecureRandom RANDOM = new SecureRandom();
+	
+	private final ThreadLocal<Cipher> cipher = new ThreadLocal<>();
+	private final SecretKey key;
+	
+	/**
+     * Creates the cipher suite.
+     * 
+     * @param key the AES key.
+     */
+	public AesGcmCipherSuite(SecretKey key) {
+		this.key = key;
+	}
+	
+	@Override
+	public String getAlgorithm() {
+		return ALGORITHM;
+	}
+	
+	@Override
+	public byte[] encrypt(byte[] plainText, byte[] initializationVector) throws Exception {
+		byte[] nonce = new byte[NONCE_SIZE];
+		RANDOM.nextBytes(nonce);
+		
+		Cipher cipher = getCipher();
+		cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+		cipher.updateAAD(initializationVector);
+		
+		byte[] cipherText = new byte[NONCE_SIZE + cipher.getOutputSize(plainText.length)];
+		System.arraycopy(nonce, 0, cipherText, 0, NONCE_SIZE);
+		int length = cipher.doFinal(plainText, 0, plainText.length, cipherText, NONCE_SIZE);
+		return length + NONCE_SIZE == cipherText.length ? cipherText : Arrays.copyOf(cipherText, NONCE_SIZE + length);
+	}
+	
+	@Override
+	public byte[] decrypt(byte[] cipherText, byte[] initializationVector) throws Exception {
+		Cipher cipher = getCipher();
+		cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, cipherText, 0, NONCE_SIZE));
+		cipher.updateAAD(initializationVector);
+		return cipher.doFinal(cipherText, NONCE_SIZE, cipherText.length - NONCE_SIZE);
+	}
+	
+	@Override
+	public int encrypt(ByteBuffer plainText, ByteBuffer cipherText, byte[] initializationVector) throws Exception {
+		byte[] nonce = new byte[NONCE_SIZE];
+		RANDOM.nextBytes(nonce);
+		
+		Cipher cipher = getCipher();
+		cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, nonce));
+		cipher.updateAAD(initializationVector);
+		cipherText.put(nonce);
+		return NONCE_SIZE + cipher.doFinal(plainText, cipherText);
+	}
+	
+	@Override
+	public int decrypt(ByteBuffer cipherText, ByteBuffer plainText, byte[] initializationVector) throws Exception {
+		GCMParameterSpec parameters;
+		if (cipherText.hasArray()) {
+			parameters = new GCMParameterSpec(TAG_BITS, cipherText.array(),
+					cipherText.arrayOffset() + cipherText.position(), NONCE_SIZE);
+			cipherText.position(cipherText.position() + NONCE_SIZE);
+		} else {
+			byte[] nonce = new byte[NONCE_SIZE];
+			cipherText.get(nonce);
+			parameters = new GCMParameterSpec(TAG_BITS, nonce);
+		}
+		
+		Cipher cipher = getCipher();
+		cipher.init(Cipher.DECRYPT_MODE, key, parameters);
+		cipher.updateAAD(initializationVector);
+		return cipher.doFinal(cipherText, plainText);
+	}
+	
+	/**
+     * Gets the cipher of the current thread, creating it on first use.
+     * 
+     * @return the cipher.
+     * @throws Exception if there is a cipher error.
+     */
+	private Cipher getCipher() throws Exception {
+		Cipher threadCipher = cipher.get();
+		if (threadCipher == null) {
+			threadCipher = Cipher.getInstance(TRANSFORMATION);
+			cipher.set(threadCipher);
+		}
+		return threadCipher;
+	}
+}
@@ -0,0 +1,75 @@
+package cse360Project.services.encryption;
+
+import java.nio.ByteBuffer;
+
+/*******
+ * <p> CipherSuite Interface. </p>
+ * 
+ * <p> Description: A symmetric cipher used by EncryptionService. The algorithm
+ * name is stored next to encrypted data, so data written with an older suite
+ * can still be decrypted after the default changes. Implementations must be
+ * thread-safe. </p>
+ * 
+ * <p> Copyright: CSE 360 Team Th02 © 2024 </p>
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ * 
+ */
+public interface CipherSuite {
+
+	/**
+     * Upper bound on the bytes encryption adds to the plain text.
+     */
+	int MAX_OVERHEAD = 32;
+
+	/**
+     * Gets the algorithm name stored with encrypted data.
+     * 
+     * @return the algorithm name.
+     */
+	String getAlgorithm();
+
+	/**
+     * Encrypts the plain text.
+     * 
+     * @param plainText the plain text to encrypt.
+     * @param initializationVector the initialization vector of the record.
+     * @return the encrypted text.
+     * @throws Exception if there is an encryption error.
+     */
+	byte[] encrypt(byte[] plainText, byte[] initializationVector) throws Exception;
+
+	/**
+     * Decrypts the cipher text.
+     * 
+     * @param cipherText the cipher text to decrypt.
+     * @param initializationVector the initialization vector of the record.
+     * @return the decrypted text.
+     * @throws Exception if there is a decryption error.
+     */
+	byte[] decrypt(byte[] cipherText, byte[] initializationVector) throws Exception;
+
+	/**
+     * Encrypts the remaining bytes of the plain text into a caller-provided
+     * buffer, which needs plainText.remaining() + MAX_OVERHEAD bytes left.
+     * 
+     * @param plainText the plain text to encrypt, consumed.
+     * @param cipherText the buffer to write the encrypted text to.
+     * @param initializationVector the initialization vector of the record.
+     * @return the number of bytes written.
+     * @throws Exception if there is an encryption error.
+     */
+	int encrypt(ByteBuffer plainText, ByteBuffer cipherText, byte[] initializationVector) throws Exception;
+
+	/**
+     * Decrypts the remaining bytes of the cipher text into a caller-provided
+     * buffer, which needs cipherText.remaining() bytes left.
+     * 
+     * @param cipherText the cipher text to decrypt, consumed.
+     * @param plainText the buffer to write the decrypted text to.
+     * @param initializationVector the initialization vector of the record.
+     * @return the number of bytes written.
+     * @throws Exception if there is a decryption error.
+     */
+	int decrypt(ByteBuffer cipherText, ByteBuffer plainText, byte[] initializationVector) throws Exception;
+}
@@ -0,0 +1,29 @@
+package cse360Project.services.encryption;
+
+/*******
+ * <p> Decryptor Interface. </p>
+ * 
+ * <p> Description: Decrypts one item of a batch passed to
+ * EncryptionService.decryptAll. Implementations may run on several threads at
+ * once and must only use thread-safe services. </p>
+ * 
+ * <p> Copyright: CSE 360 Team Th02 © 2024 </p>
+ * 
+ * @param <T> the type of the encrypted item.
+ * @param <R> the type of the decrypted item.
+ * 
+ * @version 1.00 2026-10-18 Phase four
+ * 
+ */
+@FunctionalInterface
+public interface Decryptor<T, R> {
+
+	/**
+     * Decrypts one item.
+     * 
+     * @param encrypted the encrypted item.
+     * @return the decrypted item.
+     * @throws Exception if there is a decryption error.
+     */
+	R decrypt(T encrypted) throws Exception;
+}
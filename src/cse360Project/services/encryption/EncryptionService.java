@@ -1,49 +1,74 @@
 package cse360Project.services.encryption;
 
-import java.security.Security;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
-import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
-
 /*******
  * <p> EncryptionService. </p>
  * 
- * <p> Description: A helper class for encrypting and decrypting data.  </p>
+ * <p> Description: A helper class for encrypting and decrypting data. New data
+ * is encrypted with the default cipher suite; the algorithm name returned by
+ * getDefaultAlgorithm must be stored with it so it can be decrypted with the
+ * same suite later. An instance may be shared between threads. </p>
  * 
  * <p> Copyright: Robert Lynn Carter © 2024. Modified by CSE 360 Team Th02 </p>
  * 
  * @author Robert Lynn Carter.
  * 
- * @version 1.00 2024-10-30 Phase two
+ * @version 1.01 2026-10-18 Phase four
+ *          1.00 2024-10-30 Phase two
  * 
  */
 public class EncryptionService {
 
-	private static String BOUNCY_CASTLE_PROVIDER_IDENTIFIER = "BC";	
-	private Cipher cipher;
+	// Batches up to this size are decrypted on the calling thread
+	private static final int PARALLEL_THRESHOLD = Integer.getInteger("cse360.decrypt.parallelThreshold", 32);
+	
+	// Suite used for new data
+	private static final String DEFAULT_ALGORITHM = System.getProperty("cse360.cipher", AesGcmCipherSuite.ALGORITHM);
 	
 	byte[] keyBytes = new byte[] {
             0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07,
             0x08, 0x09, 0x0a, 0x0b, 0x0c, 0x0d, 0x0e, 0x0f,
             0x10, 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x17 };
 	private SecretKey key = new SecretKeySpec(keyBytes, "AES");
+	
+	private final Map<String, CipherSuite> suites = new HashMap<>();
+	private final CipherSuite defaultSuite;
 
 	/**
-     * Creates an EncryptionService instance and initializes the cipher.
+     * Creates an EncryptionService instance and initializes the cipher suites.
      * 
      * @throws Exception if there is a cipher error.
      */
 	public EncryptionService() throws Exception {
-		Security.addProvider(new BouncyCastleProvider());
-		cipher = Cipher.getInstance("AES/CBC/PKCS5Padding", BOUNCY_CASTLE_PROVIDER_IDENTIFIER);		
+		register(new AesGcmCipherSuite(key));
+		register(new AesCbcCipherSuite(key));
+		defaultSuite = getSuite(DEFAULT_ALGORITHM);
+		
+		// Fail early if the default cipher is not available
+		defaultSuite.encrypt(new byte[0], EncryptionUtils.getInitializationVector("check".toCharArray()));
+	}
+	
+	/**
+     * Gets the algorithm name of the suite new data is encrypted with.
+     * 
+     * @return the algorithm name.
+     */
+	public String getDefaultAlgorithm() {
+		return defaultSuite.getAlgorithm();
 	}
 	
 	/**
-     * Encrypts the plain text using the key and initialization vector.
+     * Encrypts the plain text with the default suite.
      * 
      * @param plainText the plain text to encrypt.
      * @param initializationVector the initialization vector.
@@ -51,12 +76,11 @@ public class EncryptionService {
      * @throws Exception if there is an encryption error.
      */
 	public byte[] encrypt(byte[] plainText, byte[] initializationVector) throws Exception {
-		cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(initializationVector));
-		return cipher.doFinal(plainText);
+		return defaultSuite.encrypt(plainText, initializationVector);
 	}
 	
 	/**
-     * Decrypts the cipher text using the key and initialization vector.
+     * Decrypts cipher text written with the default suite.
      * 
      * @param cipherText the cipher text to decrypt.
      * @param initializationVector the initialization vector.
@@ -64,8 +88,155 @@ public class EncryptionService {
      * @throws Exception if there is a decryption error.
      */
 	public byte[] decrypt(byte[] cipherText, byte[] initializationVector) throws Exception {
-		cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(initializationVector));
-		return cipher.doFinal(cipherText);
+		return defaultSuite.decrypt(cipherText, initializationVector);
+	}
+	
+	/**
+     * Decrypts cipher text written with the given suite.
+     * 
+     * @param algorithm the algorithm name stored with the cipher text.
+     * @param cipherText the cipher text to decrypt.
+     * @param initializationVector the initialization vector.
+     * @return the decrypted text.
+     * @throws Exception if there is a decryption error or the algorithm is unknown.
+     */
+	public byte[] decrypt(String algorithm, byte[] cipherText, byte[] initializationVector) throws Exception {
+		return getSuite(algorithm).decrypt(cipherText, initializationVector);
+	}
+	
+	/**
+     * Encrypts the remaining plain text with the default suite into a
+     * caller-provided buffer, which needs plainText.remaining() +
+     * CipherSuite.MAX_OVERHEAD bytes left.
+     * 
+     * @param plainText the plain text to encrypt, consumed.
+     * @param cipherText the buffer to write the encrypted text to.
+     * @param initializationVector the initialization vector.
+     * @return the number of bytes written.
+     * @throws Exception if there is an encryption error.
+     */
+	public int encrypt(ByteBuffer plainText, ByteBuffer cipherText, byte[] initializationVector) throws Exception {
+		return defaultSuite.encrypt(plainText, cipherText, initializationVector);
+	}
+	
+	/**
+     * Decrypts the remaining cipher text written with the given suite into a
+     * caller-provided buffer, which needs cipherText.remaining() bytes left.
+     * 
+     * @param algorithm the algorithm name stored with the cipher text.
+     * @param cipherText the cipher text to decrypt, consumed.
+     * @param plainText the buffer to write the decrypted text to.
+     * @param initializationVector the initialization vector.
+     * @return the number of bytes written.
+     * @throws Exception if there is a decryption error or the algorithm is unknown.
+     */
+	public int decrypt(String algorithm, ByteBuffer cipherText, ByteBuffer plainText, byte[] initializationVector)
+			throws Exception {
+		return getSuite(algorithm).decrypt(cipherText, plainText, initializationVector);
+	}
+	
+	/**
+     * Decrypts a batch of items across the common fork-join pool. Small
+     * batches are decrypted on the calling thread.
+     * 
+     * @param <T> the type of the encrypted items.
+     * @param <R> the type of the decrypted items.
+     * @param encrypted the encrypted items.
+     * @param decryptor decrypts one item, called from several threads.
+     * @return the decrypted items, in the order of the encrypted items.
+     * @throws Exception the first error thrown by the decryptor.
+     */
+	@SuppressWarnings("unchecked")
+	public <T, R> List<R> decryptAll(List<T> encrypted, Decryptor<T, R> decryptor) throws Exception {
+		Object[] results = new Object[encrypted.size()];
+		BatchDecryption<T, R> task = new BatchDecryption<>(encrypted, results, decryptor, 0, encrypted.size());
+		if (encrypted.size() <= PARALLEL_THRESHOLD) {
+			task.compute();
+		} else {
+			ForkJoinPool.commonPool().invoke(task);
+		}
+		if (task.error != null) {
+			throw task.error;
+		}
+		return (List<R>) Arrays.asList(results);
+	}
+	
+	/**
+     * Adds a cipher suite.
+     * 
+     * @param suite the suite.
+     */
+	private void register(CipherSuite suite) {
+		suites.put(suite.getAlgorithm(), suite);
+	}
+	
+	/**
+     * Gets a cipher suite by algorithm name.
+     * 
+     * @param algorithm the algorithm name.
+     * @return the suite.
+     * @throws IllegalArgumentException if the algorithm is unknown.
+     */
+	private CipherSuite getSuite(String algorithm) {
+		CipherSuite suite = suites.get(algorithm);
+		if (suite == null) {
+			throw new IllegalArgumentException("Unknown cipher suite: " + algorithm);
+		}
+		return suite;
+	}
+	
+	/*******
+	 * <p> BatchDecryption class. </p>
+	 * 
+	 * <p> Description: Decrypts a range of a batch, splitting it in halves
+	 * until it is small enough. The first error is kept by the root task. </p>
+	 */
+	private static class BatchDecryption<T, R> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		private final List<T> encrypted;
+		private final Object[] results;
+		private final Decryptor<T, R> decryptor;
+		private final int from;
+		private final int to;
+		private volatile Exception error;
+		
+		/**
+	     * Creates a task for a range of the batch.
+	     * 
+	     * @param encrypted the encrypted items.
+	     * @param results the array the decrypted items are written to.
+	     * @param decryptor decrypts one item.
+	     * @param from the first index, inclusive.
+	     * @param to the last index, exclusive.
+	     */
+		BatchDecryption(List<T> encrypted, Object[] results, Decryptor<T, R> decryptor, int from, int to) {
+			this.encrypted = encrypted;
+			this.results = results;
+			this.decryptor = decryptor;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from <= PARALLEL_THRESHOLD) {
+				try {
+					for (int i = from; i < to; i++) {
+						results[i] = decryptor.decrypt(encrypted.get(i));
+					}
+				} catch (Exception e) {
+					error = e;
+				}
+				return;
+			}
+			
+			int middle = (from + to) >>> 1;
+			BatchDecryption<T, R> left = new BatchDecryption<>(encrypted, results, decryptor, from, middle);
+			BatchDecryption<T, R> right = new BatchDecryption<>(encrypted, results, decryptor, middle, to);
+			invokeAll(left, right);
+			error = left.error != null ? left.error : right.error;
+		}
 	}
 	
 }
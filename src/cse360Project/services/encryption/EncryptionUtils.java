@@ -2,7 +2,13 @@ package cse360Project.services.encryption;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 /*******
@@ -20,6 +26,16 @@ import java.util.Arrays;
 public class EncryptionUtils {
 	private static int IV_SIZE = 16;
 	
+	// Coders keep state, so every thread gets its own
+	private static final ThreadLocal<CharsetEncoder> UTF8_ENCODER = ThreadLocal.withInitial(
+			() -> StandardCharsets.UTF_8.newEncoder()
+					.onMalformedInput(CodingErrorAction.REPORT)
+					.onUnmappableCharacter(CodingErrorAction.REPORT));
+	private static final ThreadLocal<CharsetDecoder> UTF8_DECODER = ThreadLocal.withInitial(
+			() -> StandardCharsets.UTF_8.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPORT)
+					.onUnmappableCharacter(CodingErrorAction.REPORT));
+	
 	/**
      * Converts a byte array to a char array.
      * 
@@ -42,6 +58,69 @@ public class EncryptionUtils {
         return Arrays.copyOf(byteBuffer.array(), byteBuffer.limit());
 	}
 		
+	/**
+     * Encodes the remaining characters as UTF-8 into a caller-provided buffer,
+     * which needs at most 3 bytes per character.
+     * 
+     * @param chars the characters to encode, consumed.
+     * @param bytes the buffer to write to.
+     * @throws CharacterCodingException if the characters are malformed or the
+     *                                  buffer is too small.
+     */
+	public static void encodeUtf8(CharBuffer chars, ByteBuffer bytes) throws CharacterCodingException {
+		CharsetEncoder encoder = UTF8_ENCODER.get().reset();
+		check(encoder.encode(chars, bytes, true));
+		check(encoder.flush(bytes));
+	}
+
+	/**
+     * Decodes the remaining UTF-8 bytes into a caller-provided buffer, which
+     * needs at most one character per byte.
+     * 
+     * @param bytes the bytes to decode, consumed.
+     * @param chars the buffer to write to.
+     * @throws CharacterCodingException if the bytes are malformed or the
+     *                                  buffer is too small.
+     */
+	public static void decodeUtf8(ByteBuffer bytes, CharBuffer chars) throws CharacterCodingException {
+		CharsetDecoder decoder = UTF8_DECODER.get().reset();
+		check(decoder.decode(bytes, chars, true));
+		check(decoder.flush(chars));
+	}
+
+	/**
+     * Decodes UTF-8 bytes into a new char array of exactly the decoded length.
+     * The array is only copied if some characters took more than one byte.
+     * 
+     * @param bytes the bytes to decode, consumed.
+     * @return the decoded characters.
+     * @throws CharacterCodingException if the bytes are malformed.
+     */
+	public static char[] decodeUtf8(ByteBuffer bytes) throws CharacterCodingException {
+		char[] chars = new char[bytes.remaining()];
+		CharBuffer charBuffer = CharBuffer.wrap(chars);
+		decodeUtf8(bytes, charBuffer);
+		if (charBuffer.position() == chars.length) {
+			return chars;
+		}
+		char[] exact = Arrays.copyOf(chars, charBuffer.position());
+		Arrays.fill(chars, '\0');
+		return exact;
+	}
+
+	/**
+     * Throws if a coder did not complete.
+     * 
+     * @param result the coder result.
+     * @throws CharacterCodingException if the input was malformed or the output
+     *                                  buffer was too small.
+     */
+	private static void check(CoderResult result) throws CharacterCodingException {
+		if (result.isError() || result.isOverflow()) {
+			result.throwException();
+		}
+	}
+		
 	/**
      * Generates an initialization vector from a char array.
      * 
@@ -0,0 +1,414 @@
+package cse360Project.services.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import cse360Project.models.HelpArticle;
+import cse360Project.models.Topic;
+
+/*******
+ * <p>
+ * ArticleSearchIndex Class
+ * </p>
+ *
+ * <p>
+ * Description: In-memory search index over decrypted articles. Articles are
+ * added, replaced and removed one at a time as they are written, so queries
+ * never scan the articles. Each article gets a small integer document ID,
+ * which is reused after the article is removed. Words are looked up in an
+ * inverted index and substrings of the title, abstract and authors in a
+ * trigram index, and results can be ranked by BM25 relevance. A query that
+ * extends the caller's previous one, as while typing, only rechecks the
+ * previous matches, since adding characters can only narrow the result; the
+ * caller keeps those matches in a SearchRefinement. Keywords and levels are
+ * indexed as facets for filtering and counting. Safe for concurrent use,
+ * queries run in parallel and updates are exclusive.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class ArticleSearchIndex {
+    // Keeps a substring query from matching across the end of a field
+    private static final char FIELD_SEPARATOR = '\0';
+
+    /**
+     * The number of ranked results returned when no limit is given.
+     */
+    public static final int DEFAULT_RESULT_LIMIT = 50;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final InvertedIndex invertedIndex = new InvertedIndex();
+    private final TrigramIndex trigramIndex = new TrigramIndex();
+    private final FacetIndex facetIndex = new FacetIndex();
+    private final Bm25Scorer scorer = new Bm25Scorer(invertedIndex);
+
+    private final Map<String, Integer> documentIds = new HashMap<>();
+    private final List<String> uuids = new ArrayList<>();
+    private final Deque<Integer> freeDocumentIds = new ArrayDeque<>();
+
+    // Incremented on every change, so matches of an older version are not refined
+    private long version = 0;
+
+    /**
+     * Adds an article, replacing it if it is already indexed.
+     *
+     * @param article the article, with content loaded.
+     */
+    public void index(HelpArticle article) {
+        EnumMap<SearchField, List<String>> fieldTerms = new EnumMap<>(SearchField.class);
+        for (SearchField field : SearchField.values()) {
+            fieldTerms.put(field, TextAnalyzer.tokenize(field.getText(article)));
+        }
+        String substringText = getSubstringText(article);
+
+        lock.writeLock().lock();
+        try {
+            version++;
+            int documentId = getOrCreateDocumentId(article.getUuid());
+            invertedIndex.add(documentId, fieldTerms);
+            trigramIndex.add(documentId, substringText);
+            facetIndex.add(documentId, article.getKeywords(), article.getLevel());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds articles, replacing those that are already indexed.
+     *
+     * @param articles the articles, with content loaded.
+     */
+    public void indexAll(Collection<HelpArticle> articles) {
+        for (HelpArticle article : articles) {
+            index(article);
+        }
+    }
+
+    /**
+     * Removes an article.
+     *
+     * @param uuid the UUID of the article.
+     */
+    public void remove(String uuid) {
+        lock.writeLock().lock();
+        try {
+            Integer documentId = documentIds.remove(uuid);
+            if (documentId != null) {
+                version++;
+                invertedIndex.remove(documentId);
+                trigramIndex.remove(documentId);
+                facetIndex.remove(documentId);
+                uuids.set(documentId, null);
+                freeDocumentIds.push(documentId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all articles.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            version++;
+            invertedIndex.clear();
+            trigramIndex.clear();
+            facetIndex.clear();
+            documentIds.clear();
+            uuids.clear();
+            freeDocumentIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the articles whose title, abstract or authors contain a
+     * substring, ignoring case.
+     *
+     * @param query the substring.
+     * @return the UUIDs of the matching articles.
+     */
+    public Set<String> searchSubstring(String query) {
+        String substring = query.toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            return toUuids(trigramIndex.match(substring));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the articles whose title, abstract or authors contain a query,
+     * ignoring case, and the articles that contain every word of the query,
+     * each word as the start of a word in the title, abstract, authors,
+     * keywords or body.
+     *
+     * @param query the query.
+     * @return the UUIDs of the matching articles, empty if the query is
+     *         empty.
+     */
+    public Set<String> search(String query) {
+        lock.readLock().lock();
+        try {
+            return toUuids(match(query, null));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the articles matching a query, as {@link #search(String)} does,
+     * and returns the most relevant ones. Only the requested number of
+     * results is kept while ranking.
+     *
+     * @param query    the query.
+     * @param allowed  the UUIDs of the articles that may be returned, or null
+     *                 for all articles.
+     * @param limit    the maximum number of results.
+     * @return the UUIDs of the best matching articles, most relevant first.
+     */
+    public List<String> search(String query, Collection<String> allowed, int limit) {
+        return search(query, allowed, limit, null);
+    }
+
+    /**
+     * Finds and ranks the articles matching a query, as
+     * {@link #search(String, Collection, int)} does, refining the caller's
+     * previous matches if the query extends the previous query.
+     *
+     * @param query      the query.
+     * @param allowed    the UUIDs of the articles that may be returned, or
+     *                   null for all articles.
+     * @param limit      the maximum number of results.
+     * @param refinement the caller's previous matches, updated with this
+     *                   query's, or null to search from scratch.
+     * @return the UUIDs of the best matching articles, most relevant first.
+     */
+    public List<String> search(String query, Collection<String> allowed, int limit, SearchRefinement refinement) {
+        List<String> terms = TextAnalyzer.tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = match(query, refinement);
+            if (allowed != null) {
+                candidates.and(toDocumentIds(allowed));
+            }
+            List<String> results = new ArrayList<>();
+            for (Bm25Scorer.ScoredDocument document : scorer.topK(terms, candidates, limit)) {
+                results.add(uuids.get(document.getDocumentId()));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filters articles by keywords and levels. An article passes if it has
+     * any of the keywords, when keywords are given, and any of the levels,
+     * when levels are given.
+     *
+     * @param articleIds the UUIDs of the articles to filter.
+     * @param keywords   the keywords, compared ignoring case, empty for any.
+     * @param levels     the levels, empty for any.
+     * @return the UUIDs of the articles that pass, articles that are not
+     *         indexed never pass.
+     */
+    public Set<String> filter(Collection<String> articleIds, Set<String> keywords, Set<Topic> levels) {
+        lock.readLock().lock();
+        try {
+            return toUuids(facetIndex.filter(toDocumentIds(articleIds), keywords, levels));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a test for single articles by keywords and levels, as
+     * {@link #filter(Collection, Set, Set)} applies to many, for callers that
+     * walk articles in order and stop once they have enough.
+     *
+     * @param keywords the keywords, compared ignoring case, empty for any.
+     * @param levels   the levels, empty for any.
+     * @return a test that is true for the UUIDs of the articles that pass,
+     *         articles that are not indexed never pass.
+     */
+    public Predicate<String> facetFilter(Set<String> keywords, Set<Topic> levels) {
+        Set<String> normalizedKeywords = new HashSet<>();
+        for (String keyword : keywords) {
+            normalizedKeywords.add(FacetIndex.normalizeKeyword(keyword));
+        }
+        Set<Topic> selectedLevels = new HashSet<>(levels);
+
+        return uuid -> {
+            lock.readLock().lock();
+            try {
+                Integer documentId = documentIds.get(uuid);
+                return documentId != null && facetIndex.matches(documentId, normalizedKeywords, selectedLevels);
+            } finally {
+                lock.readLock().unlock();
+            }
+        };
+    }
+
+    /**
+     * Counts articles per keyword and level.
+     *
+     * @param articleIds the UUIDs of the articles to count.
+     * @return the counts.
+     */
+    public FacetCounts countFacets(Collection<String> articleIds) {
+        lock.readLock().lock();
+        try {
+            return facetIndex.count(toDocumentIds(articleIds));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed articles.
+     *
+     * @return the article count.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents matching a query by substring or by word prefixes.
+     * If the query extends the caller's previous one, only the previous
+     * matches are checked. Callers must hold a lock.
+     *
+     * @param query      the query.
+     * @param refinement the caller's previous matches, or null.
+     * @return the matching document IDs.
+     */
+    private BitSet match(String query, SearchRefinement refinement) {
+        String substring = query.toLowerCase(Locale.ROOT);
+        if (substring.isEmpty()) {
+            return new BitSet();
+        }
+
+        BitSet matches = invertedIndex.matchAllPrefixes(TextAnalyzer.tokenize(query));
+        BitSet previous = refinement != null ? refinement.getRefinableMatches(version, substring) : null;
+        if (previous != null) {
+            // Every word of the previous query starts a word of this one, and the
+            // previous query is a substring of this one, so no new documents match
+            matches.and(previous);
+            matches.or(trigramIndex.match(substring, previous));
+        } else {
+            matches.or(trigramIndex.match(substring));
+        }
+
+        if (refinement != null) {
+            refinement.update(version, substring, (BitSet) matches.clone());
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the lower case text substring queries are matched against: title,
+     * abstract and authors, with the authors joined by spaces.
+     *
+     * @param article the article.
+     * @return the text.
+     */
+    private static String getSubstringText(HelpArticle article) {
+        StringBuilder text = new StringBuilder(article.getTitle()).append(FIELD_SEPARATOR);
+        if (article.getAbstractText() != null) {
+            text.append(article.getAbstractText());
+        }
+        text.append(FIELD_SEPARATOR);
+        char[][] authors = article.getAuthors();
+        for (int i = 0; authors != null && i < authors.length; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(authors[i]);
+        }
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the document ID of an article, assigning one if it has none.
+     * Callers must hold the write lock.
+     *
+     * @param uuid the UUID of the article.
+     * @return the document ID.
+     */
+    private int getOrCreateDocumentId(String uuid) {
+        Integer documentId = documentIds.get(uuid);
+        if (documentId == null) {
+            if (freeDocumentIds.isEmpty()) {
+                documentId = uuids.size();
+                uuids.add(uuid);
+            } else {
+                documentId = freeDocumentIds.pop();
+                uuids.set(documentId, uuid);
+            }
+            documentIds.put(uuid, documentId);
+        }
+        return documentId;
+    }
+
+    /**
+     * Converts article UUIDs to document IDs, skipping articles that are not
+     * indexed. Callers must hold a lock.
+     *
+     * @param articleIds the UUIDs.
+     * @return the document IDs.
+     */
+    private BitSet toDocumentIds(Collection<String> articleIds) {
+        BitSet result = new BitSet();
+        for (String uuid : articleIds) {
+            Integer documentId = documentIds.get(uuid);
+            if (documentId != null) {
+                result.set(documentId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts document IDs to article UUIDs. Callers must hold a lock.
+     *
+     * @param documents the document IDs.
+     * @return the UUIDs.
+     */
+    private Set<String> toUuids(BitSet documents) {
+        Set<String> result = new HashSet<>();
+        for (int documentId = documents.nextSetBit(0); documentId >= 0; documentId = documents
+                .nextSetBit(documentId + 1)) {
+            result.add(uuids.get(documentId));
+        }
+        return result;
+    }
+}
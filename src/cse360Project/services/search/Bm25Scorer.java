@@ -0,0 +1,181 @@
+package cse360Project.services.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/*******
+ * <p>
+ * Bm25Scorer Class
+ * </p>
+ *
+ * <p>
+ * Description: Ranks documents of an inverted index by BM25 relevance to a
+ * query. Term frequencies are weighted by field boost and normalized by field
+ * length before saturation (BM25F), so a word in a short title outranks the
+ * same word once in a long body. Each query term is a prefix; a document
+ * scores the best of the indexed terms it expands to. Only the best results
+ * are kept, in a heap bounded by the limit.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class Bm25Scorer {
+    // Standard BM25 parameters: term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final InvertedIndex index;
+
+    /**
+     * Creates a scorer over an index. The index must not change while the
+     * scorer is in use.
+     *
+     * @param index the inverted index.
+     */
+    public Bm25Scorer(InvertedIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Scores candidate documents against a query and keeps the best.
+     * Candidates that match no query term score 0 and rank last.
+     *
+     * @param terms      the query terms.
+     * @param candidates the documents to rank.
+     * @param limit      the maximum number of results.
+     * @return the best documents, highest score first, ties by document ID.
+     */
+    public List<ScoredDocument> topK(List<String> terms, BitSet candidates, int limit) {
+        if (limit <= 0 || candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            for (Map.Entry<Integer, Double> termScore : scoreTerm(term, candidates).entrySet()) {
+                scores.merge(termScore.getKey(), termScore.getValue(), Double::sum);
+            }
+        }
+
+        // min-heap of the best results so far, the worst is evicted first
+        PriorityQueue<ScoredDocument> best = new PriorityQueue<>(limit + 1, Collections.reverseOrder());
+        for (int documentId = candidates.nextSetBit(0); documentId >= 0; documentId = candidates
+                .nextSetBit(documentId + 1)) {
+            ScoredDocument document = new ScoredDocument(documentId, scores.getOrDefault(documentId, 0.0));
+            if (best.size() < limit) {
+                best.add(document);
+            } else if (document.compareTo(best.peek()) < 0) {
+                best.poll();
+                best.add(document);
+            }
+        }
+
+        List<ScoredDocument> results = new ArrayList<>(best);
+        Collections.sort(results);
+        return results;
+    }
+
+    /**
+     * Scores the candidates containing a query term, taking the best of the
+     * indexed terms the query term is a prefix of.
+     *
+     * @param term       the query term.
+     * @param candidates the documents to score.
+     * @return the score of each matching candidate.
+     */
+    private Map<Integer, Double> scoreTerm(String term, BitSet candidates) {
+        Map<Integer, Double> scores = new HashMap<>();
+        int documentCount = index.getDocumentCount();
+        for (Map<Integer, int[]> postings : index.prefixRange(term).values()) {
+            double idf = Math.log(1 + (documentCount - postings.size() + 0.5) / (postings.size() + 0.5));
+            for (Map.Entry<Integer, int[]> posting : postings.entrySet()) {
+                int documentId = posting.getKey();
+                if (candidates.get(documentId)) {
+                    double tf = weightedFrequency(documentId, posting.getValue());
+                    scores.merge(documentId, idf * tf / (K1 + tf), Math::max);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Combines the per-field frequencies of a term in a document, weighted by
+     * boost and normalized by field length.
+     *
+     * @param documentId  the document ID.
+     * @param frequencies the term frequency in each field.
+     * @return the weighted term frequency.
+     */
+    private double weightedFrequency(int documentId, int[] frequencies) {
+        double total = 0;
+        for (SearchField field : SearchField.values()) {
+            int frequency = frequencies[field.ordinal()];
+            if (frequency > 0) {
+                double averageLength = index.getAverageFieldLength(field);
+                double lengthRatio = averageLength > 0 ? index.getFieldLength(documentId, field) / averageLength : 1;
+                total += field.getBoost() * frequency / (1 - B + B * lengthRatio);
+            }
+        }
+        return total;
+    }
+
+    /*******
+     * <p>
+     * ScoredDocument class.
+     * </p>
+     *
+     * <p>
+     * Description: A document with its relevance score. Orders by descending
+     * score, then ascending document ID.
+     * </p>
+     */
+    public static class ScoredDocument implements Comparable<ScoredDocument> {
+        private final int documentId;
+        private final double score;
+
+        /**
+         * Creates a scored document.
+         *
+         * @param documentId the document ID.
+         * @param score      the relevance score.
+         */
+        public ScoredDocument(int documentId, double score) {
+            this.documentId = documentId;
+            this.score = score;
+        }
+
+        /**
+         * Gets the document ID.
+         *
+         * @return the document ID.
+         */
+        public int getDocumentId() {
+            return documentId;
+        }
+
+        /**
+         * Gets the relevance score.
+         *
+         * @return the score.
+         */
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public int compareTo(ScoredDocument other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : Integer.compare(documentId, other.documentId);
+        }
+    }
+}
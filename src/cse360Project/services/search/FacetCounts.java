@@ -0,0 +1,65 @@
+package cse360Project.services.search;
+
+import java.util.Map;
+
+import cse360Project.models.Topic;
+
+/*******
+ * <p>
+ * FacetCounts Class
+ * </p>
+ *
+ * <p>
+ * Description: The number of articles per keyword and level in a set of
+ * articles.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class FacetCounts {
+    private final Map<String, Integer> keywordCounts;
+    private final Map<Topic, Integer> levelCounts;
+
+    /**
+     * Creates facet counts.
+     *
+     * @param keywordCounts the article count per keyword.
+     * @param levelCounts   the article count per level.
+     */
+    public FacetCounts(Map<String, Integer> keywordCounts, Map<Topic, Integer> levelCounts) {
+        this.keywordCounts = keywordCounts;
+        this.levelCounts = levelCounts;
+    }
+
+    /**
+     * Gets the article count per keyword.
+     *
+     * @return the counts by lower case keyword, sorted by keyword.
+     */
+    public Map<String, Integer> getKeywordCounts() {
+        return keywordCounts;
+    }
+
+    /**
+     * Gets the article count per level.
+     *
+     * @return the counts by level.
+     */
+    public Map<Topic, Integer> getLevelCounts() {
+        return levelCounts;
+    }
+
+    /**
+     * Gets the article count of a level.
+     *
+     * @param level the level.
+     * @return the count, 0 if no article has the level.
+     */
+    public int getLevelCount(Topic level) {
+        return levelCounts.getOrDefault(level, 0);
+    }
+}
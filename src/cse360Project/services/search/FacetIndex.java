@@ -0,0 +1,209 @@
+package cse360Project.services.search;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import cse360Project.models.Topic;
+
+/*******
+ * <p>
+ * FacetIndex Class
+ * </p>
+ *
+ * <p>
+ * Description: Maps each keyword and level to the documents that have it, as
+ * bit sets, so filtering by facets and counting the documents per facet are
+ * set operations. Keywords are compared ignoring case and surrounding
+ * spaces. Not thread-safe, ArticleSearchIndex guards access.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class FacetIndex {
+    private final Map<String, BitSet> keywordDocuments = new HashMap<>();
+    private final EnumMap<Topic, BitSet> levelDocuments = new EnumMap<>(Topic.class);
+
+    // document ID -> its keywords and level, to remove a document without a scan
+    private final Map<Integer, Set<String>> documentKeywords = new HashMap<>();
+    private final Map<Integer, Topic> documentLevels = new HashMap<>();
+
+    /**
+     * Adds a document, replacing it if it is already indexed.
+     *
+     * @param documentId the document ID.
+     * @param keywords   the keywords of the document, may be null.
+     * @param level      the level of the document.
+     */
+    public void add(int documentId, char[][] keywords, Topic level) {
+        remove(documentId);
+
+        Set<String> normalized = new LinkedHashSet<>();
+        if (keywords != null) {
+            for (char[] keyword : keywords) {
+                String value = normalizeKeyword(new String(keyword));
+                if (!value.isEmpty()) {
+                    normalized.add(value);
+                }
+            }
+        }
+        for (String keyword : normalized) {
+            keywordDocuments.computeIfAbsent(keyword, k -> new BitSet()).set(documentId);
+        }
+        levelDocuments.computeIfAbsent(level, l -> new BitSet()).set(documentId);
+        documentKeywords.put(documentId, normalized);
+        documentLevels.put(documentId, level);
+    }
+
+    /**
+     * Removes a document.
+     *
+     * @param documentId the document ID.
+     */
+    public void remove(int documentId) {
+        Set<String> keywords = documentKeywords.remove(documentId);
+        if (keywords == null) {
+            return;
+        }
+        for (String keyword : keywords) {
+            BitSet documents = keywordDocuments.get(keyword);
+            documents.clear(documentId);
+            if (documents.isEmpty()) {
+                keywordDocuments.remove(keyword);
+            }
+        }
+        levelDocuments.get(documentLevels.remove(documentId)).clear(documentId);
+    }
+
+    /**
+     * Removes all documents.
+     */
+    public void clear() {
+        keywordDocuments.clear();
+        levelDocuments.clear();
+        documentKeywords.clear();
+        documentLevels.clear();
+    }
+
+    /**
+     * Filters documents by facets. A document passes if it has any of the
+     * keywords, when keywords are given, and any of the levels, when levels
+     * are given.
+     *
+     * @param documents the documents to filter.
+     * @param keywords  the keywords, empty for any.
+     * @param levels    the levels, empty for any.
+     * @return the documents that pass.
+     */
+    public BitSet filter(BitSet documents, Set<String> keywords, Set<Topic> levels) {
+        BitSet result = (BitSet) documents.clone();
+        if (!keywords.isEmpty()) {
+            BitSet anyKeyword = new BitSet();
+            for (String keyword : keywords) {
+                BitSet keywordMatches = keywordDocuments.get(normalizeKeyword(keyword));
+                if (keywordMatches != null) {
+                    anyKeyword.or(keywordMatches);
+                }
+            }
+            result.and(anyKeyword);
+        }
+        if (!levels.isEmpty()) {
+            BitSet anyLevel = new BitSet();
+            for (Topic level : levels) {
+                BitSet levelMatches = levelDocuments.get(level);
+                if (levelMatches != null) {
+                    anyLevel.or(levelMatches);
+                }
+            }
+            result.and(anyLevel);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether one document passes a facet filter, as
+     * {@link #filter(BitSet, Set, Set)} does.
+     *
+     * @param documentId         the document ID.
+     * @param normalizedKeywords the keywords, normalized, empty for any.
+     * @param levels             the levels, empty for any.
+     * @return true if the document passes, false if it is not indexed.
+     */
+    public boolean matches(int documentId, Set<String> normalizedKeywords, Set<Topic> levels) {
+        Set<String> keywords = documentKeywords.get(documentId);
+        if (keywords == null) {
+            return false;
+        }
+        if (!levels.isEmpty() && !levels.contains(documentLevels.get(documentId))) {
+            return false;
+        }
+        if (normalizedKeywords.isEmpty()) {
+            return true;
+        }
+        for (String keyword : keywords) {
+            if (normalizedKeywords.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts documents per keyword and level.
+     *
+     * @param documents the documents to count.
+     * @return the counts, facets without documents are left out.
+     */
+    public FacetCounts count(BitSet documents) {
+        Map<String, Integer> keywordCounts = new TreeMap<>();
+        for (Map.Entry<String, BitSet> keyword : keywordDocuments.entrySet()) {
+            int count = countIntersection(keyword.getValue(), documents);
+            if (count > 0) {
+                keywordCounts.put(keyword.getKey(), count);
+            }
+        }
+        Map<Topic, Integer> levelCounts = new EnumMap<>(Topic.class);
+        for (Map.Entry<Topic, BitSet> level : levelDocuments.entrySet()) {
+            int count = countIntersection(level.getValue(), documents);
+            if (count > 0) {
+                levelCounts.put(level.getKey(), count);
+            }
+        }
+        return new FacetCounts(keywordCounts, levelCounts);
+    }
+
+    /**
+     * Normalizes a keyword for comparison.
+     *
+     * @param keyword the keyword.
+     * @return the trimmed, lower case keyword.
+     */
+    public static String normalizeKeyword(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Counts the documents in both sets.
+     *
+     * @param first  the first set.
+     * @param second the second set.
+     * @return the size of the intersection.
+     */
+    private static int countIntersection(BitSet first, BitSet second) {
+        if (!first.intersects(second)) {
+            return 0;
+        }
+        BitSet both = (BitSet) first.clone();
+        both.and(second);
+        return both.cardinality();
+    }
+}
@@ -0,0 +1,189 @@
+package cse360Project.services.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/*******
+ * <p>
+ * InvertedIndex Class
+ * </p>
+ *
+ * <p>
+ * Description: Maps terms to the documents containing them, with the term
+ * frequency per field. Terms are kept sorted so all terms starting with a
+ * prefix can be read as one range. Documents are identified by small integer
+ * IDs so result sets can be bit sets. Not thread-safe, ArticleSearchIndex
+ * guards access.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class InvertedIndex {
+    private static final int FIELD_COUNT = SearchField.values().length;
+
+    // term -> document ID -> frequency per field
+    private final TreeMap<String, Map<Integer, int[]>> postings = new TreeMap<>();
+    // document ID -> its distinct terms, to remove a document without a scan
+    private final Map<Integer, Set<String>> documentTerms = new HashMap<>();
+    // document ID -> number of terms per field
+    private final Map<Integer, int[]> fieldLengths = new HashMap<>();
+    private final long[] totalFieldLengths = new long[FIELD_COUNT];
+
+    /**
+     * Adds a document, replacing it if it is already indexed.
+     *
+     * @param documentId the document ID.
+     * @param fieldTerms the terms of each field.
+     */
+    public void add(int documentId, EnumMap<SearchField, List<String>> fieldTerms) {
+        remove(documentId);
+
+        Set<String> terms = new HashSet<>();
+        int[] lengths = new int[FIELD_COUNT];
+        for (Map.Entry<SearchField, List<String>> field : fieldTerms.entrySet()) {
+            int fieldIndex = field.getKey().ordinal();
+            lengths[fieldIndex] = field.getValue().size();
+            totalFieldLengths[fieldIndex] += lengths[fieldIndex];
+            for (String term : field.getValue()) {
+                terms.add(term);
+                postings.computeIfAbsent(term, t -> new HashMap<>())
+                        .computeIfAbsent(documentId, d -> new int[FIELD_COUNT])[fieldIndex]++;
+            }
+        }
+        documentTerms.put(documentId, terms);
+        fieldLengths.put(documentId, lengths);
+    }
+
+    /**
+     * Removes a document.
+     *
+     * @param documentId the document ID.
+     */
+    public void remove(int documentId) {
+        Set<String> terms = documentTerms.remove(documentId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Integer, int[]> documents = postings.get(term);
+            documents.remove(documentId);
+            if (documents.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        int[] lengths = fieldLengths.remove(documentId);
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            totalFieldLengths[i] -= lengths[i];
+        }
+    }
+
+    /**
+     * Removes all documents.
+     */
+    public void clear() {
+        postings.clear();
+        documentTerms.clear();
+        fieldLengths.clear();
+        Arrays.fill(totalFieldLengths, 0);
+    }
+
+    /**
+     * Finds the documents containing a term that starts with a prefix.
+     *
+     * @param prefix the term prefix.
+     * @return the matching document IDs.
+     */
+    public BitSet matchPrefix(String prefix) {
+        BitSet matches = new BitSet();
+        for (Map<Integer, int[]> documents : prefixRange(prefix).values()) {
+            for (int documentId : documents.keySet()) {
+                matches.set(documentId);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the documents containing every query term, each as a prefix of an
+     * indexed term.
+     *
+     * @param terms the query terms.
+     * @return the matching document IDs, empty if there are no terms.
+     */
+    public BitSet matchAllPrefixes(List<String> terms) {
+        BitSet matches = null;
+        for (String term : terms) {
+            BitSet termMatches = matchPrefix(term);
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.and(termMatches);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches != null ? matches : new BitSet();
+    }
+
+    /**
+     * Gets the indexed terms that start with a prefix, with their postings.
+     *
+     * @param prefix the term prefix.
+     * @return the terms in order.
+     */
+    public Map<String, Map<Integer, int[]>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Gets the number of indexed documents.
+     *
+     * @return the document count.
+     */
+    public int getDocumentCount() {
+        return documentTerms.size();
+    }
+
+    /**
+     * Gets the number of distinct indexed terms.
+     *
+     * @return the term count.
+     */
+    public int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * Gets the number of terms in a field of a document.
+     *
+     * @param documentId the document ID.
+     * @param field      the field.
+     * @return the field length, 0 if the document is not indexed.
+     */
+    public int getFieldLength(int documentId, SearchField field) {
+        int[] lengths = fieldLengths.get(documentId);
+        return lengths != null ? lengths[field.ordinal()] : 0;
+    }
+
+    /**
+     * Gets the average number of terms in a field over all documents.
+     *
+     * @param field the field.
+     * @return the average field length.
+     */
+    public double getAverageFieldLength(SearchField field) {
+        return documentTerms.isEmpty() ? 0 : (double) totalFieldLengths[field.ordinal()] / documentTerms.size();
+    }
+}
@@ -0,0 +1,68 @@
+package cse360Project.services.search;
+
+import cse360Project.models.HelpArticle;
+
+/*******
+ * <p>
+ * SearchField Enum
+ * </p>
+ *
+ * <p>
+ * Description: The article fields that are indexed for search, with the
+ * weight a match in each field has when ranking results.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public enum SearchField {
+    TITLE(3.0),
+    ABSTRACT(1.5),
+    AUTHORS(1.0),
+    KEYWORDS(2.0),
+    BODY(1.0);
+
+    private final double boost;
+
+    /**
+     * Creates a search field.
+     *
+     * @param boost the ranking weight of a match in this field.
+     */
+    SearchField(double boost) {
+        this.boost = boost;
+    }
+
+    /**
+     * Gets the ranking weight of a match in this field.
+     *
+     * @return the boost, 1 for a plain match.
+     */
+    public double getBoost() {
+        return boost;
+    }
+
+    /**
+     * Gets the text of this field from an article.
+     *
+     * @param article the article, with content loaded.
+     * @return the field text, one array per line for list fields.
+     */
+    public char[][] getText(HelpArticle article) {
+        switch (this) {
+            case TITLE:
+                return new char[][] { article.getTitle().toCharArray() };
+            case ABSTRACT:
+                return new char[][] { article.getAbstractText() };
+            case AUTHORS:
+                return article.getAuthors();
+            case KEYWORDS:
+                return article.getKeywords();
+            default:
+                return new char[][] { article.getBody() };
+        }
+    }
+}
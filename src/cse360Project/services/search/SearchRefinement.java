@@ -0,0 +1,90 @@
+package cse360Project.services.search;
+
+import java.util.BitSet;
+
+/*******
+ * <p>
+ * SearchRefinement Class
+ * </p>
+ *
+ * <p>
+ * Description: The matches of a caller's last query, so the next query can
+ * refine them when it extends the last one, as while typing. Each caller,
+ * e.g. each search box, keeps its own refinement and passes it in with its
+ * queries, so other callers' queries do not replace it. A refinement is
+ * meant for one caller at a time; the fields are swapped as one object so a
+ * stray concurrent use only loses the refinement, never corrupts results.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class SearchRefinement {
+    private volatile PreviousSearch previousSearch;
+
+    /**
+     * Gets the matches of the last query if a new query can refine them.
+     *
+     * @param version the current index version.
+     * @param query   the new lower case query.
+     * @return the previous matching document IDs, not to be modified, or null
+     *         if the query does not extend the last one or the index changed.
+     */
+    BitSet getRefinableMatches(long version, String query) {
+        PreviousSearch previous = previousSearch;
+        if (previous != null && previous.version == version && query.startsWith(previous.query)) {
+            return previous.matches;
+        }
+        return null;
+    }
+
+    /**
+     * Records the matches of a query.
+     *
+     * @param version the index version the query ran against.
+     * @param query   the lower case query.
+     * @param matches the matching document IDs, not modified afterwards.
+     */
+    void update(long version, String query, BitSet matches) {
+        previousSearch = new PreviousSearch(version, query, matches);
+    }
+
+    /**
+     * Forgets the last query, e.g. after the search box is cleared.
+     */
+    public void reset() {
+        previousSearch = null;
+    }
+
+    /*******
+     * <p>
+     * PreviousSearch class.
+     * </p>
+     *
+     * <p>
+     * Description: The matches of the last query, to refine when the next
+     * query extends it.
+     * </p>
+     */
+    private static class PreviousSearch {
+        private final long version;
+        private final String query;
+        private final BitSet matches;
+
+        /**
+         * Creates a previous search.
+         *
+         * @param version the index version the query ran against.
+         * @param query   the lower case query.
+         * @param matches the matching document IDs, not modified afterwards.
+         */
+        PreviousSearch(long version, String query, BitSet matches) {
+            this.version = version;
+            this.query = query;
+            this.matches = matches;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package cse360Project.services.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*******
+ * <p>
+ * TextAnalyzer Class
+ * </p>
+ *
+ * <p>
+ * Description: Splits text into lower case terms. Letters and digits form
+ * terms, everything else separates them.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public final class TextAnalyzer {
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Splits lines of text into terms.
+     *
+     * @param lines the text, may be null.
+     * @return the terms in order, with duplicates.
+     */
+    public static List<String> tokenize(char[][] lines) {
+        List<String> terms = new ArrayList<>();
+        if (lines != null) {
+            for (char[] line : lines) {
+                tokenize(line, terms);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Splits a query into terms.
+     *
+     * @param query the query.
+     * @return the terms in order, with duplicates.
+     */
+    public static List<String> tokenize(String query) {
+        List<String> terms = new ArrayList<>();
+        tokenize(query.toCharArray(), terms);
+        return terms;
+    }
+
+    /**
+     * Adds the terms of a text to a list.
+     *
+     * @param text  the text, may be null.
+     * @param terms the list to add to.
+     */
+    private static void tokenize(char[] text, List<String> terms) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder term = new StringBuilder();
+        for (char c : text) {
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (term.length() > 0) {
+            terms.add(term.toString());
+        }
+    }
+}
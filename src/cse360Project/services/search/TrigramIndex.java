@@ -0,0 +1,173 @@
+package cse360Project.services.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*******
+ * <p>
+ * TrigramIndex Class
+ * </p>
+ *
+ * <p>
+ * Description: Answers substring queries without scanning every document.
+ * Each run of three characters in a document is mapped to the documents
+ * containing it, so the documents holding all trigrams of a query are the
+ * only candidates. Candidates are then checked against the stored text, as
+ * sharing every trigram does not guarantee the query occurs in order.
+ * Queries shorter than a trigram check every document. Not thread-safe,
+ * ArticleSearchIndex guards access.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @version 1.00 2026-10-18 Phase four
+ */
+public class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    // trigram, packed into a long -> documents containing it
+    private final Map<Long, BitSet> postings = new HashMap<>();
+    // document ID -> indexed text, to verify candidates and remove documents
+    private final Map<Integer, String> texts = new HashMap<>();
+    private final BitSet documents = new BitSet();
+
+    /**
+     * Adds a document, replacing it if it is already indexed.
+     *
+     * @param documentId the document ID.
+     * @param text       the text to match substrings in.
+     */
+    public void add(int documentId, String text) {
+        remove(documentId);
+        texts.put(documentId, text);
+        documents.set(documentId);
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            postings.computeIfAbsent(gram(text, i), g -> new BitSet()).set(documentId);
+        }
+    }
+
+    /**
+     * Removes a document.
+     *
+     * @param documentId the document ID.
+     */
+    public void remove(int documentId) {
+        String text = texts.remove(documentId);
+        if (text == null) {
+            return;
+        }
+        documents.clear(documentId);
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            Long gram = gram(text, i);
+            BitSet gramDocuments = postings.get(gram);
+            if (gramDocuments != null) {
+                gramDocuments.clear(documentId);
+                if (gramDocuments.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all documents.
+     */
+    public void clear() {
+        postings.clear();
+        texts.clear();
+        documents.clear();
+    }
+
+    /**
+     * Finds the documents whose text contains a substring.
+     *
+     * @param query the substring, matched exactly.
+     * @return the matching document IDs.
+     */
+    public BitSet match(String query) {
+        BitSet matches = candidates(query);
+        for (int documentId = matches.nextSetBit(0); documentId >= 0; documentId = matches
+                .nextSetBit(documentId + 1)) {
+            if (!texts.get(documentId).contains(query)) {
+                matches.clear(documentId);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the documents among a known superset whose text contains a
+     * substring, checking their text directly.
+     *
+     * @param query  the substring, matched exactly.
+     * @param within the documents that may match.
+     * @return the matching document IDs.
+     */
+    public BitSet match(String query, BitSet within) {
+        BitSet matches = new BitSet();
+        for (int documentId = within.nextSetBit(0); documentId >= 0; documentId = within
+                .nextSetBit(documentId + 1)) {
+            String text = texts.get(documentId);
+            if (text != null && text.contains(query)) {
+                matches.set(documentId);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the documents that contain every trigram of a query.
+     *
+     * @param query the substring.
+     * @return the candidate document IDs, every document if the query is
+     *         shorter than a trigram.
+     */
+    BitSet candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return (BitSet) documents.clone();
+        }
+
+        List<BitSet> gramDocuments = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            BitSet found = postings.get(gram(query, i));
+            if (found == null) {
+                return new BitSet();
+            }
+            gramDocuments.add(found);
+        }
+
+        // start from the rarest trigram so the working set stays small
+        gramDocuments.sort(Comparator.comparingInt(BitSet::cardinality));
+        BitSet candidates = (BitSet) gramDocuments.get(0).clone();
+        for (int i = 1; i < gramDocuments.size() && !candidates.isEmpty(); i++) {
+            candidates.and(gramDocuments.get(i));
+        }
+        return candidates;
+    }
+
+    /**
+     * Gets the number of distinct indexed trigrams.
+     *
+     * @return the trigram count.
+     */
+    public int getGramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Packs the trigram starting at an index into a long.
+     *
+     * @param text  the text.
+     * @param index the start of the trigram.
+     * @return the packed trigram.
+     */
+    private static Long gram(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ *
+ */
+package cse360Project.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import cse360Project.models.HelpArticle;
+import cse360Project.models.Topic;
+import cse360Project.services.ArticleRecordCodec;
+
+/*******
+ * <p>
+ * ArticleRecordCodecJUnitTesting JUnit Testing Class
+ * </p>
+ *
+ * <p>
+ * Description: A class to test the actual ArticleRecordCodec class.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @author CSE 360 Team Th02
+ *
+ * @version 1.00 2026-10-18 Phase four
+ *
+ */
+public class ArticleRecordCodecJUnitTesting {
+
+	/**
+     * Article used for testing.
+     */
+	private final HelpArticle article = new HelpArticle("uuid", "Tïtle".toCharArray(),
+			new char[][] { "author1".toCharArray(), "author2".toCharArray() }, "abstract".toCharArray(),
+			new char[][] { "key".toCharArray() }, "body\nwith ünicode".toCharArray(), new char[][] {},
+			new ArrayList<>(), Topic.EXPERT);
+
+	/**
+     * Testing the summary record round trip.
+     */
+	@Test
+	public void testSummary() throws IOException {
+		HelpArticle summary = ArticleRecordCodec.decodeSummary("uuid", ArticleRecordCodec.encodeSummary(article));
+		assertEquals("ArticleRecordCodec title", summary.getTitle(), "Tïtle");
+		assertArrayEquals("ArticleRecordCodec authors", summary.getAuthors(), article.getAuthors());
+		assertArrayEquals("ArticleRecordCodec abstract", summary.getAbstractText(), article.getAbstractText());
+		assertEquals("ArticleRecordCodec level", summary.getLevel(), Topic.EXPERT);
+		assertFalse("ArticleRecordCodec summary has no content", summary.hasContent());
+	}
+
+	/**
+     * Testing the content record round trip.
+     */
+	@Test
+	public void testContent() throws IOException {
+		HelpArticle summary = ArticleRecordCodec.decodeSummary("uuid", ArticleRecordCodec.encodeSummary(article));
+		ArticleRecordCodec.decodeContent(ArticleRecordCodec.encodeContent(article), summary);
+		assertArrayEquals("ArticleRecordCodec keywords", summary.getKeywords(), article.getKeywords());
+		assertArrayEquals("ArticleRecordCodec body", summary.getBody(), article.getBody());
+		assertEquals("ArticleRecordCodec references", summary.getReferences().length, 0);
+	}
+
+	/**
+     * Testing that an unknown record version is rejected.
+     */
+	@Test(expected = IOException.class)
+	public void testUnknownVersion() throws IOException {
+		byte[] record = ArticleRecordCodec.encodeSummary(article);
+		record[0] = 99;
+		ArticleRecordCodec.decodeSummary("uuid", record);
+	}
+}
@@ -0,0 +1,193 @@
+/**
+ *
+ */
+package cse360Project.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cse360Project.models.HelpArticle;
+import cse360Project.models.Topic;
+import cse360Project.services.search.ArticleSearchIndex;
+import cse360Project.services.search.FacetCounts;
+import cse360Project.services.search.SearchRefinement;
+
+/*******
+ * <p>
+ * ArticleSearchIndexJUnitTesting JUnit Testing Class
+ * </p>
+ *
+ * <p>
+ * Description: A class to test the actual ArticleSearchIndex class.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @author CSE 360 Team Th02
+ *
+ * @version 1.00 2026-10-18 Phase four
+ *
+ */
+public class ArticleSearchIndexJUnitTesting {
+
+	/**
+     * Instance used for testing.
+     */
+	private ArticleSearchIndex index;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		index = new ArticleSearchIndex();
+		index.index(article("a", "Network Basics", "Alice", "sockets", "TCP and UDP explained"));
+		index.index(article("b", "Java Streams", "Bob", "lambda", "Working with network streams"));
+		index.index(article("c", "Eclipse Setup", "Carol", "ide", "Installing plugins"));
+	}
+
+	/**
+	 * Creates an article for testing.
+	 *
+	 * @param uuid    the UUID.
+	 * @param title   the title.
+	 * @param author  the author.
+	 * @param keyword the keyword.
+	 * @param body    the body.
+	 * @return the article.
+	 */
+	private static HelpArticle article(String uuid, String title, String author, String keyword, String body) {
+		return new HelpArticle(uuid, title.toCharArray(), new char[][] { author.toCharArray() },
+				"abstract".toCharArray(), new char[][] { keyword.toCharArray() }, body.toCharArray(),
+				new char[][] {}, new ArrayList<>(), Topic.BEGINNER);
+	}
+
+	/**
+     * Testing that every field is searched and words match by prefix.
+     */
+	@Test
+	public void testSearch() {
+		assertEquals("ArticleSearchIndex title and body", index.search("netw"), Set.of("a", "b"));
+		assertEquals("ArticleSearchIndex author", index.search("carol"), Set.of("c"));
+		assertEquals("ArticleSearchIndex keyword", index.search("LAMBDA"), Set.of("b"));
+		assertEquals("ArticleSearchIndex all words", index.search("network udp"), Set.of("a"));
+		assertTrue("ArticleSearchIndex no match", index.search("python").isEmpty());
+		assertTrue("ArticleSearchIndex no words", index.search("  !").isEmpty());
+	}
+
+	/**
+     * Testing that substrings of the title, abstract and authors match.
+     */
+	@Test
+	public void testSubstringSearch() {
+		assertEquals("ArticleSearchIndex substring in title", index.search("work bas"), Set.of("a"));
+		assertEquals("ArticleSearchIndex substring in author", index.search("aro"), Set.of("c"));
+		assertEquals("ArticleSearchIndex short substring", index.searchSubstring("ip"), Set.of("c"));
+		assertEquals("ArticleSearchIndex case", index.searchSubstring("JAVA S"), Set.of("b"));
+		assertTrue("ArticleSearchIndex trigrams out of order", index.searchSubstring("sicsb").isEmpty());
+		assertTrue("ArticleSearchIndex across fields", index.searchSubstring("basicsabs").isEmpty());
+		assertTrue("ArticleSearchIndex body is not substring matched", index.searchSubstring("plain").isEmpty());
+	}
+
+	/**
+     * Testing that results are ranked and limited.
+     */
+	@Test
+	public void testRankedSearch() {
+		index.index(article("d", "Network Security", "Dan", "network", "Network certificates"));
+		assertEquals("ArticleSearchIndex ranking", index.search("network", null, 10), List.of("d", "a", "b"));
+		assertEquals("ArticleSearchIndex limit", index.search("network", null, 2), List.of("d", "a"));
+		assertEquals("ArticleSearchIndex allowed", index.search("network", List.of("b", "c"), 10), List.of("b"));
+		assertEquals("ArticleSearchIndex substring only", index.search("ip", null, 10), List.of("c"));
+		assertTrue("ArticleSearchIndex zero limit", index.search("network", null, 0).isEmpty());
+	}
+
+	/**
+     * Testing that queries extending the previous one give the same results
+     * as a fresh search, also after the index changes or when another caller
+     * searches in between.
+     */
+	@Test
+	public void testRefinedSearch() {
+		SearchRefinement refinement = new SearchRefinement();
+		SearchRefinement otherRefinement = new SearchRefinement();
+		assertEquals("ArticleSearchIndex first query", refined("ne", refinement), Set.of("a", "b"));
+		assertEquals("ArticleSearchIndex refined query", refined("netw", refinement), Set.of("a", "b"));
+		assertEquals("ArticleSearchIndex other caller", refined("plugins", otherRefinement), Set.of("c"));
+		assertEquals("ArticleSearchIndex refined words", refined("network u", refinement), Set.of("a"));
+		assertEquals("ArticleSearchIndex shorter query", refined("net", refinement), Set.of("a", "b"));
+
+		index.index(article("e", "Netherlands Mirrors", "Eve", "mirror", "Downloads"));
+		assertEquals("ArticleSearchIndex refined after update", refined("neth", refinement), Set.of("e"));
+		assertEquals("ArticleSearchIndex unrelated query", refined("plugins", refinement), Set.of("c"));
+	}
+
+	/**
+	 * Runs a ranked search with a refinement and returns the matches as a set.
+	 *
+	 * @param query      the query.
+	 * @param refinement the caller's refinement.
+	 * @return the matching UUIDs.
+	 */
+	private Set<String> refined(String query, SearchRefinement refinement) {
+		return new HashSet<>(index.search(query, null, 10, refinement));
+	}
+
+	/**
+     * Testing filtering and counting by keyword and level.
+     */
+	@Test
+	public void testFacets() {
+		index.index(new HelpArticle("d", "Advanced Sockets".toCharArray(), new char[][] { "Dan".toCharArray() },
+				"abstract".toCharArray(), new char[][] { " Sockets ".toCharArray(), "tls".toCharArray() },
+				"body".toCharArray(), new char[][] {}, new ArrayList<>(), Topic.ADVANCED));
+		List<String> all = List.of("a", "b", "c", "d");
+
+		assertEquals("ArticleSearchIndex keyword filter", index.filter(all, Set.of("SOCKETS"), Set.of()),
+				Set.of("a", "d"));
+		assertEquals("ArticleSearchIndex any keyword", index.filter(all, Set.of("lambda", "tls"), Set.of()),
+				Set.of("b", "d"));
+		assertEquals("ArticleSearchIndex keyword and level",
+				index.filter(all, Set.of("sockets"), Set.of(Topic.BEGINNER)), Set.of("a"));
+		assertEquals("ArticleSearchIndex within articles", index.filter(List.of("b", "c"), Set.of(), Set.of()),
+				Set.of("b", "c"));
+
+		FacetCounts counts = index.countFacets(List.of("a", "b", "d"));
+		assertEquals("ArticleSearchIndex keyword counts", counts.getKeywordCounts(),
+				Map.of("sockets", 2, "lambda", 1, "tls", 1));
+		assertEquals("ArticleSearchIndex level counts", counts.getLevelCount(Topic.BEGINNER), 2);
+		assertEquals("ArticleSearchIndex empty level count", counts.getLevelCount(Topic.EXPERT), 0);
+
+		index.remove("d");
+		assertEquals("ArticleSearchIndex removed facets", index.countFacets(all).getKeywordCounts().get("sockets"),
+				Integer.valueOf(1));
+	}
+
+	/**
+     * Testing that updates replace the old text and removals drop the article.
+     */
+	@Test
+	public void testUpdateAndRemove() {
+		index.index(article("a", "Routing", "Alice", "sockets", "Routers"));
+		assertEquals("ArticleSearchIndex updated article", index.search("network"), Set.of("b"));
+		assertEquals("ArticleSearchIndex new text", index.search("rout"), Set.of("a"));
+
+		index.remove("b");
+		assertTrue("ArticleSearchIndex removed article", index.search("network").isEmpty());
+		assertTrue("ArticleSearchIndex removed substring", index.searchSubstring("streams").isEmpty());
+		assertEquals("ArticleSearchIndex size", index.size(), 2);
+
+		index.index(article("d", "Network Security", "Dan", "tls", "Certificates"));
+		assertEquals("ArticleSearchIndex reused id", index.search("network"), Set.of("d"));
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ *
+ */
+package cse360Project.test;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cse360Project.services.ConnectionPool;
+
+/*******
+ * <p>
+ * ConnectionPoolJUnitTesting JUnit Testing Class
+ * </p>
+ *
+ * <p>
+ * Description: A class to test the actual ConnectionPool class.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @author CSE 360 Team Th02
+ *
+ * @version 1.00 2026-10-18 Phase four
+ *
+ */
+public class ConnectionPoolJUnitTesting {
+
+	/**
+     * Instance used for testing.
+     */
+	private ConnectionPool pool;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		// min 1, max 2, evict immediately, no leak reports, 100 ms wait
+		pool = new ConnectionPool("jdbc:h2:mem:poolTest", "sa", "", 1, 2, 0, 0, 100);
+	}
+
+	/**
+	 * Closes the pool.
+	 */
+	@After
+	public void tearDown() {
+		pool.close();
+	}
+
+	/**
+     * Testing that the minimum number of connections is opened up front.
+     */
+	@Test
+	public void testMinimumOpened() {
+		assertEquals("ConnectionPool idle on start", pool.getIdleCount(), 1);
+	}
+
+	/**
+     * Testing that closing a connection returns it to the pool.
+     */
+	@Test
+	public void testConnectionReturned() throws SQLException {
+		Connection connection = pool.getConnection();
+		assertEquals("ConnectionPool active after borrow", pool.getActiveCount(), 1);
+		connection.close();
+		connection.close();
+		assertTrue("ConnectionPool proxy closed", connection.isClosed());
+		assertEquals("ConnectionPool active after close", pool.getActiveCount(), 0);
+		assertEquals("ConnectionPool idle after close", pool.getIdleCount(), 1);
+	}
+
+	/**
+     * Testing that the pool does not open more than the maximum.
+     */
+	@Test(expected = SQLException.class)
+	public void testMaximumSize() throws SQLException {
+		pool.getConnection();
+		pool.getConnection();
+		pool.getConnection();
+	}
+
+	/**
+     * Testing that idle connections above the minimum are evicted.
+     */
+	@Test
+	public void testIdleEviction() throws SQLException {
+		Connection first = pool.getConnection();
+		Connection second = pool.getConnection();
+		first.close();
+		second.close();
+		assertEquals("ConnectionPool idle before eviction", pool.getIdleCount(), 2);
+		pool.runHousekeeping();
+		assertEquals("ConnectionPool idle after eviction", pool.getIdleCount(), 1);
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ *
+ */
+package cse360Project.test;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cse360Project.services.DebouncedExecutor;
+
+/*******
+ * <p>
+ * DebouncedExecutorJUnitTesting JUnit Testing Class
+ * </p>
+ *
+ * <p>
+ * Description: A class to test the actual DebouncedExecutor class.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @author CSE 360 Team Th02
+ *
+ * @version 1.00 2026-10-18 Phase four
+ *
+ */
+public class DebouncedExecutorJUnitTesting {
+
+	/**
+     * Instance used for testing.
+     */
+	private DebouncedExecutor executor;
+
+	/**
+     * Results published by the executor.
+     */
+	private List<String> results;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		executor = new DebouncedExecutor("test-search", 50, Runnable::run);
+		results = new CopyOnWriteArrayList<>();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdown();
+	}
+
+	/**
+     * Testing that tasks submitted in quick succession only run the latest.
+     */
+	@Test
+	public void testDebounce() throws Exception {
+		AtomicInteger runs = new AtomicInteger();
+		CountDownLatch done = new CountDownLatch(1);
+		for (String query : new String[] { "n", "ne", "net" }) {
+			executor.submit(superseded -> {
+				runs.incrementAndGet();
+				return query;
+			}, result -> {
+				results.add(result);
+				done.countDown();
+			}, e -> fail(e.getMessage()));
+		}
+
+		assertTrue("DebouncedExecutor published", done.await(5, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals("DebouncedExecutor runs", runs.get(), 1);
+		assertEquals("DebouncedExecutor latest result", results, List.of("net"));
+	}
+
+	/**
+     * Testing that a running task superseded by a newer one is not published.
+     */
+	@Test
+	public void testSupersededWhileRunning() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		executor.submit(superseded -> {
+			started.countDown();
+			release.await();
+			return superseded.getAsBoolean() ? "stopped" : "old";
+		}, results::add, e -> fail(e.getMessage()));
+
+		assertTrue("DebouncedExecutor started", started.await(5, TimeUnit.SECONDS));
+		executor.submit(superseded -> "new", result -> {
+			results.add(result);
+			done.countDown();
+		}, e -> fail(e.getMessage()));
+		release.countDown();
+
+		assertTrue("DebouncedExecutor published", done.await(5, TimeUnit.SECONDS));
+		assertEquals("DebouncedExecutor superseded result", results, List.of("new"));
+	}
+
+	/**
+     * Testing that cancelled tasks are not published and errors are.
+     */
+	@Test
+	public void testCancelAndError() throws Exception {
+		executor.submit(superseded -> "cancelled", results::add, e -> fail(e.getMessage()));
+		executor.cancel();
+
+		CountDownLatch failed = new CountDownLatch(1);
+		executor.<String>submit(superseded -> {
+			throw new IllegalStateException("query failed");
+		}, results::add, e -> failed.countDown());
+
+		assertTrue("DebouncedExecutor error", failed.await(5, TimeUnit.SECONDS));
+		assertTrue("DebouncedExecutor cancelled", results.isEmpty());
+	}
+}
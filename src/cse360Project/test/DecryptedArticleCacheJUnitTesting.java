@@ -0,0 +1,112 @@
+/**
+ *
+ */
+package cse360Project.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cse360Project.models.HelpArticle;
+import cse360Project.models.Topic;
+import cse360Project.services.DecryptedArticleCache;
+
+/*******
+ * <p>
+ * DecryptedArticleCacheJUnitTesting JUnit Testing Class
+ * </p>
+ *
+ * <p>
+ * Description: A class to test the actual DecryptedArticleCache class.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @author CSE 360 Team Th02
+ *
+ * @version 1.00 2026-10-18 Phase four
+ *
+ */
+public class DecryptedArticleCacheJUnitTesting {
+
+	/**
+     * Instance used for testing.
+     */
+	private DecryptedArticleCache cache;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		cache = new DecryptedArticleCache(400);
+	}
+
+	/**
+	 * Creates an article for testing.
+	 *
+	 * @param uuid the UUID of the article.
+	 * @return the article.
+	 */
+	private static HelpArticle article(String uuid) {
+		char[][] lines = { "line".toCharArray() };
+		return new HelpArticle(uuid, "title".toCharArray(), lines, "abstract".toCharArray(), lines,
+				"body".toCharArray(), lines, new ArrayList<>(Arrays.asList(1)), Topic.BEGINNER);
+	}
+
+	/**
+     * Testing a hit returns a copy of the cached article.
+     */
+	@Test
+	public void testHit() {
+		cache.put("iv1".getBytes(), article("a"));
+		HelpArticle cached = cache.get("a", "iv1".getBytes());
+		assertNotNull("DecryptedArticleCache hit", cached);
+		assertEquals("DecryptedArticleCache title", cached.getTitle(), "title");
+		assertTrue("DecryptedArticleCache groups not cached", cached.getGroups().isEmpty());
+		assertEquals("DecryptedArticleCache hit count", cache.getHitCount(), 1);
+	}
+
+	/**
+     * Testing a different IV is a miss.
+     */
+	@Test
+	public void testIvMismatch() {
+		cache.put("iv1".getBytes(), article("a"));
+		assertNull("DecryptedArticleCache stale IV", cache.get("a", "iv2".getBytes()));
+		assertEquals("DecryptedArticleCache miss count", cache.getMissCount(), 1);
+		assertEquals("DecryptedArticleCache stale entry removed", cache.size(), 0);
+	}
+
+	/**
+     * Testing invalidation.
+     */
+	@Test
+	public void testInvalidate() {
+		cache.put("iv1".getBytes(), article("a"));
+		cache.invalidate("a");
+		assertNull("DecryptedArticleCache invalidated", cache.get("a", "iv1".getBytes()));
+		assertEquals("DecryptedArticleCache weight after invalidate", cache.getWeight(), 0);
+	}
+
+	/**
+     * Testing the least recently used article is evicted when full.
+     */
+	@Test
+	public void testEviction() {
+		for (int i = 0; i < 5; i++) {
+			cache.put("iv".getBytes(), article("article" + i));
+			cache.get("article0", "iv".getBytes());
+		}
+		assertTrue("DecryptedArticleCache within weight", cache.getWeight() <= 400);
+		assertTrue("DecryptedArticleCache evicted", cache.getEvictionCount() > 0);
+		assertNotNull("DecryptedArticleCache keeps recently used", cache.get("article0", "iv".getBytes()));
+		assertNull("DecryptedArticleCache evicts least recently used", cache.get("article1", "iv".getBytes()));
+	}
+}
@@ -0,0 +1,184 @@
+/**
+ *
+ */
+package cse360Project.test;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import cse360Project.services.encryption.AesCbcCipherSuite;
+import cse360Project.services.encryption.AesGcmCipherSuite;
+import cse360Project.services.encryption.CipherSuite;
+import cse360Project.services.encryption.EncryptionService;
+import cse360Project.services.encryption.EncryptionUtils;
+
+/*******
+ * <p>
+ * EncryptionServiceJUnitTesting JUnit Testing Class
+ * </p>
+ *
+ * <p>
+ * Description: A class to test the actual EncryptionService class.
+ * </p>
+ *
+ * <p>
+ * Copyright: CSE 360 Team Th02 © 2024
+ * </p>
+ *
+ * @author CSE 360 Team Th02
+ *
+ * @version 1.00 2026-10-18 Phase four
+ *
+ */
+public class EncryptionServiceJUnitTesting {
+
+	/**
+     * Instance used for testing.
+     */
+	private EncryptionService service;
+
+	/**
+     * IV used for testing.
+     */
+	private byte[] iv;
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		service = new EncryptionService();
+		iv = EncryptionUtils.getInitializationVector("testIV".toCharArray());
+	}
+
+	/**
+     * Testing that one instance can be used from several threads at once.
+     */
+	@Test
+	public void testConcurrentUse() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				String text = "article " + i;
+				results.add(executor.submit(() -> new String(service.decrypt(service.encrypt(text.getBytes(), iv), iv))));
+			}
+			for (int i = 0; i < 200; i++) {
+				assertEquals("EncryptionService concurrent round trip", results.get(i).get(), "article " + i);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+     * Testing that a bulk decryption keeps the order of the batch.
+     */
+	@Test
+	public void testDecryptAllOrder() throws Exception {
+		List<byte[]> encrypted = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			encrypted.add(service.encrypt(("article " + i).getBytes(), iv));
+		}
+		List<String> decrypted = service.decryptAll(encrypted, cipherText -> new String(service.decrypt(cipherText, iv)));
+		assertEquals("EncryptionService decryptAll size", decrypted.size(), 1000);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals("EncryptionService decryptAll order", decrypted.get(i), "article " + i);
+		}
+	}
+
+	/**
+     * Testing that an error of one item fails the whole batch.
+     */
+	@Test(expected = IllegalStateException.class)
+	public void testDecryptAllError() throws Exception {
+		List<Integer> items = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			items.add(i);
+		}
+		service.decryptAll(items, item -> {
+			if (item == 42) {
+				throw new IllegalStateException("bad item");
+			}
+			return item;
+		});
+	}
+
+	/**
+     * Testing that new data uses AES-GCM with a fresh nonce every time.
+     */
+	@Test
+	public void testGcmNonce() throws Exception {
+		assertEquals("EncryptionService default algorithm", service.getDefaultAlgorithm(), AesGcmCipherSuite.ALGORITHM);
+		byte[] first = service.encrypt("text".getBytes(), iv);
+		byte[] second = service.encrypt("text".getBytes(), iv);
+		assertFalse("EncryptionService nonce reused", Arrays.equals(first, second));
+		assertEquals("EncryptionService GCM round trip",
+				new String(service.decrypt(AesGcmCipherSuite.ALGORITHM, first, iv)), "text");
+	}
+
+	/**
+     * Testing that changed cipher text is rejected.
+     */
+	@Test(expected = Exception.class)
+	public void testGcmTampering() throws Exception {
+		byte[] cipherText = service.encrypt("text".getBytes(), iv);
+		cipherText[cipherText.length - 1] ^= 1;
+		service.decrypt(cipherText, iv);
+	}
+
+	/**
+     * Testing that data written with AES-CBC still decrypts.
+     */
+	@Test
+	public void testLegacyCbc() throws Exception {
+		AesCbcCipherSuite cbc = new AesCbcCipherSuite(new SecretKeySpec(new byte[] {
+				0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07,
+				0x08, 0x09, 0x0a, 0x0b, 0x0c, 0x0d, 0x0e, 0x0f,
+				0x10, 0x11, 0x12, 0x13, 0x14, 0x15, 0x16, 0x17 }, "AES"));
+		byte[] cipherText = cbc.encrypt("legacy".getBytes(), iv);
+		assertEquals("EncryptionService CBC round trip",
+				new String(service.decrypt(AesCbcCipherSuite.ALGORITHM, cipherText, iv)), "legacy");
+	}
+
+	/**
+     * Testing encryption and decryption with caller-provided buffers.
+     */
+	@Test
+	public void testByteBuffers() throws Exception {
+		byte[] plainText = "buffered text".getBytes();
+		ByteBuffer cipherText = ByteBuffer.allocate(plainText.length + CipherSuite.MAX_OVERHEAD);
+		service.encrypt(ByteBuffer.wrap(plainText), cipherText, iv);
+		cipherText.flip();
+
+		ByteBuffer decrypted = ByteBuffer.allocate(cipherText.remaining());
+		int length = service.decrypt(service.getDefaultAlgorithm(), cipherText, decrypted, iv);
+		assertEquals("EncryptionService buffer length", length, plainText.length);
+		assertEquals("EncryptionService buffer round trip", new String(decrypted.array(), 0, length), "buffered text");
+	}
+
+	/**
+     * Testing UTF-8 conversion into caller-provided buffers.
+     */
+	@Test
+	public void testUtf8Buffers() throws Exception {
+		char[] text = "naïve € text".toCharArray();
+		ByteBuffer bytes = ByteBuffer.allocate(text.length * 3);
+		EncryptionUtils.encodeUtf8(CharBuffer.wrap(text), bytes);
+		bytes.flip();
+		assertArrayEquals("EncryptionUtils UTF-8 round trip", EncryptionUtils.decodeUtf8(bytes), text);
+	}
+}
@@ -3,9 +3,11 @@ package cse360Project.test;
 import java.util.Collections;
 import java.util.List;
 import java.util.Arrays;
+import java.util.Set;
 import java.util.UUID;
 
 import cse360Project.models.ArticleGroup;
+import cse360Project.models.ArticlePage;
 import cse360Project.models.HelpArticle;
 import cse360Project.models.Role;
 import cse360Project.models.Topic;
@@ -106,11 +108,110 @@ public class HelpArticleServiceTestingAutomation {
 			testService.modifyArticle(testHelpArticle2, false);
 			assertEqual("Add 2 articles to the db", testService.getAllArticles().size(), 2);
 
+			/**
+			 * Testing filtering articles by group.
+			 */
+			int emptyGroupId = testService.modifyGroup(new ArticleGroup(-1, "2-ag", false, false), null, null);
+			assertEqual("Filter articles by group", testService.getArticlesByGroups(testGroups).size(), 2);
+			assertEqual("Filter articles by empty group",
+					testService.getArticlesByGroups(Arrays.asList(emptyGroupId)).size(), 0);
+
+			/**
+			 * Testing that relinking an article only changes the links that differ.
+			 */
+			testService.modifyArticle(new HelpArticle(testUuid1, testTitle, testAuthors, testAbstractText,
+					testKeywords, testBody, testReferences, Arrays.asList(groupId, emptyGroupId), testLevel), true);
+			assertEqual("Article added to second group",
+					testService.getArticlesByGroups(Arrays.asList(emptyGroupId)).size(), 1);
+			assertEqual("Article kept in first group", testService.getArticlesByGroups(testGroups).size(), 2);
+			testService.modifyArticle(testHelpArticle1, true);
+			assertEqual("Article removed from second group",
+					testService.getArticlesByGroups(Arrays.asList(emptyGroupId)).size(), 0);
+
+			/**
+			 * Testing that protected groups hide their articles from non-members.
+			 */
+			int protectedGroupId = testService.modifyGroup(new ArticleGroup(-1, "3-ag", true, false), null, null);
+			String protectedUuid = UUID.randomUUID().toString();
+			testService.modifyArticle(new HelpArticle(protectedUuid, testTitle, testAuthors, testAbstractText,
+					testKeywords, testBody, testReferences, Arrays.asList(protectedGroupId), testLevel), false);
+			assertEqual("Protected article visible to member", testService.getArticle(protectedUuid) != null, true);
+			assertEqual("Protected group visible to its admin", testService.getGroup(protectedGroupId).isAdmin(), true);
+			assertEqual("Groups by ID match group list", testService.getAllGroupsById().size(),
+					testService.getAllGroups().size());
+			User otherUser = testUserService.register("otheruser", "PAS123word!");
+			testUserService.setCurrentUser(otherUser);
+			assertEqual("Protected article hidden from non-member", testService.getArticle(protectedUuid) == null, true);
+			assertEqual("Protected article hidden from list", testService.getAllArticles().size(), 2);
+			assertEqual("Protected article hidden from search", testService.searchArticleIds("body").size(), 2);
+			assertEqual("Protected article hidden from ranked search",
+					testService.searchArticleIds("body", Arrays.asList(protectedUuid), 10).isEmpty(), true);
+			assertEqual("Protected article hidden from facets",
+					testService.filterArticleIds(Arrays.asList(protectedUuid), Set.of(), Set.of()).isEmpty(), true);
+			assertEqual("Protected group hidden from non-member", testService.getGroup(protectedGroupId) == null, true);
+			assertEqual("Non-member is not admin of unprotected group", testService.getGroup(groupId).isAdmin(), false);
+			testUserService.setCurrentUser(testUser);
+			testService.modifyGroup(new ArticleGroup(protectedGroupId, "3-ag", false, false),
+					Arrays.asList(protectedUuid), null);
+			testUserService.setCurrentUser(otherUser);
+			assertEqual("Unprotected article visible to everyone", testService.getAllArticles().size(), 3);
+			testUserService.setCurrentUser(testUser);
+			testService.deleteArticle(protectedUuid);
+			assertEqual("Deleted article no longer visible", testService.getAllArticles().size(), 2);
+
+			/**
+			 * Testing that summaries leave out the body and a full load includes it.
+			 */
+			testService.getArticleCache().clear();
+			assertEqual("Summaries without body", testService.getArticleSummaries().get(0).hasContent(), false);
+			assertEqual("Full article body", new String(testService.getArticle(testUuid1).getBody()),
+					new String(testBody));
+
+			/**
+			 * Testing paging through articles.
+			 */
+			ArticlePage firstPage = testService.getArticleSummaryPage(null, 1);
+			ArticlePage secondPage = testService.getArticleSummaryPage(firstPage.getNextCursor(), 1);
+			assertEqual("First page of articles", firstPage.getArticles().size(), 1);
+			assertEqual("Last page of articles", secondPage.hasNext(), false);
+			assertEqual("Pages in UUID order",
+					firstPage.getArticles().get(0).getUuid().compareTo(secondPage.getArticles().get(0).getUuid()) < 0,
+					true);
+			assertEqual("Page of articles by group",
+					testService.getArticleSummaryPageByGroups(testGroups, null, 10).getArticles().size(), 2);
+			ArticlePage filteredPage = testService.getArticleSummaryPage(Collections.emptyList(), Set.of("KEY1"),
+					Set.of(Topic.ADVANCED), null, 1);
+			assertEqual("Filtered page is full", filteredPage.getArticles().size(), 1);
+			assertEqual("Filtered page has next", filteredPage.hasNext(), true);
+			ArticlePage emptyPage = testService.getArticleSummaryPage(Collections.emptyList(), Collections.emptySet(),
+					Set.of(Topic.BEGINNER), null, 1);
+			assertEqual("Filtered page without matches", emptyPage.getArticles().size() + " " + emptyPage.hasNext(),
+					"0 false");
+
+			/**
+			 * Testing searching articles.
+			 */
+			assertEqual("Search articles", testService.searchArticleIds("bod").size(), 2);
+			assertEqual("Search articles without match", testService.searchArticleIds("python").size(), 0);
+
+			/**
+			 * Testing filtering and counting articles by keyword and level.
+			 */
+			List<String> visibleIds = testService.getVisibleArticleIds(Collections.emptyList());
+			assertEqual("Visible article IDs", visibleIds.size(), 2);
+			assertEqual("Filter articles by keyword",
+					testService.filterArticleIds(visibleIds, Set.of("KEY2"), Set.of(Topic.ADVANCED)).size(), 2);
+			assertEqual("Filter articles by level",
+					testService.filterArticleIds(visibleIds, Set.of(), Set.of(Topic.BEGINNER)).size(), 0);
+			assertEqual("Count articles by keyword",
+					testService.countArticleFacets(visibleIds).getKeywordCounts().get("key1"), 2);
+
 			/**
 			 * Testing deleting an article.
 			 */
 			testService.deleteArticle(testUuid2);
 			assertEqual("Deleting an article", testService.getAllArticles().size(), 1);
+			assertEqual("Deleting an article from search", testService.searchArticleIds("body").size(), 1);
 
 			/**
 			 * Testing editing an article.
@@ -129,6 +230,14 @@ public class HelpArticleServiceTestingAutomation {
 			testService.backupArticles("articlesBackup.bak", Collections.emptyList());
 			testService.restoreArticles("articlesBackup.bak", false);
 			assertEqual("Back up and restore", testService.getAllArticles().size(), 1);
+
+			/**
+			 * Testing that deleting a user drops cached group membership.
+			 */
+			testUserService.setCurrentUser(otherUser);
+			assertEqual("Group of another user visible", testService.getGroup(groupId) != null, true);
+			testUserService.deleteUser(testUser.getUuid());
+			assertEqual("Group without members gone after user deleted", testService.getGroup(groupId) == null, true);
 		} catch (Exception e) {
 			System.out.println();
 			System.out.println(e);